@@ -41,6 +41,16 @@ repositories {
     maven("https://maven.shedaniel.me/") // Cloth Config API.
 }
 
+val jmh: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+    runtimeClasspath += sourceSets.main.get().output + sourceSets.main.get().runtimeClasspath
+}
+
+val gametest: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+    runtimeClasspath += sourceSets.main.get().output + sourceSets.main.get().runtimeClasspath
+}
+
 loom {
     log4jConfigs.setFrom("log4j2.xml")
     silentMojangMappingsLicense()
@@ -59,6 +69,25 @@ loom {
             "-Dfabric.debug.disableClassPathIsolation=true"
         )
     }
+    runs.create("gametest") {
+        server()
+        name("Game Test")
+        source(gametest)
+        runDir("build/gametest")
+        vmArgs(
+            // Run the game tests and exit.
+            "-Dfabric-api.gametest",
+            "-Dfabric-api.gametest.report-file=${layout.buildDirectory.file("gametest/junit.xml").get().asFile}"
+        )
+    }
+    mods {
+        create("bscfsio") {
+            sourceSet(sourceSets.main.get())
+        }
+        create("bscfsio-gametest") {
+            sourceSet(gametest)
+        }
+    }
     @Suppress("UnstableApiUsage") // <- I want the fancy refmap name. It's completely optional and can be removed anytime.
     mixin {
         defaultRefmapName = "bscfsio.mixins.refmap.json"
@@ -79,6 +108,16 @@ dependencies {
     modImplementation(libs.fabric.api)
     modImplementation(libs.modmenu)
     modImplementation(libs.cloth.config)
+
+    // Benchmarks
+    "jmhImplementation"(libs.jmh.core)
+    "jmhAnnotationProcessor"(libs.jmh.generator)
+
+    // Tests
+    testImplementation(platform(libs.junit.bom))
+    testImplementation(libs.junit.jupiter)
+    testRuntimeOnly(libs.junit.launcher)
+    testCompileOnly(libs.jspecify)
 }
 
 tasks.withType<JavaCompile> {
@@ -87,6 +126,47 @@ tasks.withType<JavaCompile> {
     options.release = 17
 }
 
+tasks.withType<Test> {
+    useJUnitPlatform()
+}
+
+val gametestConfig by tasks.registering {
+    description = "Writes the game test server config that opts in to the server enforcement."
+    val config = layout.buildDirectory.file("gametest/config/bscfsio.json")
+    outputs.file(config)
+    doLast { config.get().asFile.apply { parentFile.mkdirs() }.writeText("{\n  \"serverEnforce\": true\n}\n") }
+}
+
+tasks.matching { it.name == "runGametest" }.configureEach {
+    dependsOn(gametestConfig)
+}
+
+tasks.register<JavaExec>("jmh") {
+    group = "benchmark"
+    description = "Runs the JMH benchmarks and writes the results as JSON."
+    classpath = jmh.runtimeClasspath
+    mainClass = "org.openjdk.jmh.Main"
+    val results = layout.buildDirectory.file("reports/jmh/results.json")
+    outputs.file(results)
+    outputs.upToDateWhen { false }
+    doFirst { results.get().asFile.parentFile.mkdirs() }
+    args("-rf", "json", "-rff", results.get().asFile.absolutePath)
+    if (project.hasProperty("jmhArgs")) {
+        args(project.property("jmhArgs").toString().split(' ').filter(String::isNotBlank))
+    }
+}
+
+tasks.register<JavaExec>("replay") {
+    group = "benchmark"
+    description = "Replays the recorded clicks against the configs and reports the throughput, latency, and verdict differences."
+    classpath = jmh.runtimeClasspath
+    mainClass = "ru.vidtu.bscfsio.BReplay"
+    workingDir = rootDir
+    if (project.hasProperty("replayArgs")) {
+        args(project.property("replayArgs").toString().split(' ').filter(String::isNotBlank))
+    }
+}
+
 tasks.withType<ProcessResources> {
     inputs.property("version", version)
     filesMatching(listOf("fabric.mod.json", "quilt.mod.json")) {
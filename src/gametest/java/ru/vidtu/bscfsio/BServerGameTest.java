@@ -0,0 +1,113 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024-2025 VidTu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.vidtu.bscfsio;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import net.fabricmc.fabric.api.gametest.v1.FabricGameTest;
+import net.minecraft.gametest.framework.GameTest;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.network.protocol.game.ServerboundContainerClickPacket;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.player.Inventory;
+import net.minecraft.world.inventory.AbstractContainerMenu;
+import net.minecraft.world.inventory.ClickType;
+import net.minecraft.world.inventory.InventoryMenu;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Server enforcement game tests. Run with {@code ./gradlew runGametest}, the dedicated test server config
+ * only enables {@code serverEnforce}, so the default rules are enforced: {@code totem_of_undying} can't be shift-clicked.
+ *
+ * @author VidTu
+ * @see BServer
+ */
+@NullMarked
+public final class BServerGameTest implements FabricGameTest {
+    /**
+     * Creates a new test.
+     */
+    public BServerGameTest() {
+        // Empty
+    }
+
+    /**
+     * Tests that the protected stack is not moved by a shift-click.
+     *
+     * @param helper Test helper
+     */
+    @GameTest(template = EMPTY_STRUCTURE)
+    public void blockedQuickMove(GameTestHelper helper) {
+        quickMove(helper, new ItemStack(Items.TOTEM_OF_UNDYING), /*blocked=*/true);
+    }
+
+    /**
+     * Tests that the unprotected stack is moved by a shift-click.
+     *
+     * @param helper Test helper
+     */
+    @GameTest(template = EMPTY_STRUCTURE)
+    public void allowedQuickMove(GameTestHelper helper) {
+        quickMove(helper, new ItemStack(Items.DIAMOND), /*blocked=*/false);
+    }
+
+    /**
+     * Puts the stack into the first hotbar slot of a mock player, sends the shift-click packet, and checks the menu state.
+     *
+     * @param helper  Test helper
+     * @param stack   Stack to click
+     * @param blocked Whether the click is expected to be blocked
+     */
+    private static void quickMove(GameTestHelper helper, ItemStack stack, boolean blocked) {
+        ServerPlayer player = helper.makeMockServerPlayerInLevel();
+        try {
+            // Prepare the inventory.
+            Inventory inventory = player.getInventory();
+            inventory.clearContent();
+            inventory.setItem(0, stack.copy());
+            AbstractContainerMenu menu = player.containerMenu;
+            menu.broadcastChanges();
+
+            // Click.
+            player.connection.handleContainerClick(new ServerboundContainerClickPacket(menu.containerId, menu.getStateId(),
+                    InventoryMenu.USE_ROW_SLOT_START, 0, ClickType.QUICK_MOVE, ItemStack.EMPTY, new Int2ObjectOpenHashMap<>()));
+
+            // Check.
+            if (blocked) {
+                helper.assertTrue(ItemStack.matches(inventory.getItem(0), stack), "Protected stack has been moved: " + inventory.getItem(0));
+                for (int i = 1; i < inventory.getContainerSize(); i++) {
+                    helper.assertTrue(inventory.getItem(i).isEmpty(), "Protected stack has been copied to slot " + i + ": " + inventory.getItem(i));
+                }
+            } else {
+                helper.assertTrue(inventory.getItem(0).isEmpty(), "Unprotected stack has not been moved: " + inventory.getItem(0));
+            }
+            helper.assertTrue(menu.getCarried().isEmpty(), "Carried stack has changed: " + menu.getCarried());
+            helper.succeed();
+        } finally {
+            helper.getLevel().getServer().getPlayerList().remove(player);
+        }
+    }
+}
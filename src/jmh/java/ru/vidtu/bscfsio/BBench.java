@@ -0,0 +1,83 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024-2025 VidTu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.vidtu.bscfsio;
+
+import net.minecraft.SharedConstants;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.world.item.Items;
+import org.jetbrains.annotations.CheckReturnValue;
+import org.jetbrains.annotations.Contract;
+import org.jspecify.annotations.NullMarked;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shared benchmark utilities.
+ *
+ * @author VidTu
+ */
+@NullMarked
+final class BBench {
+    /**
+     * An instance of this class cannot be created.
+     *
+     * @throws AssertionError Always
+     * @deprecated Always throws
+     */
+    @Deprecated(forRemoval = true)
+    @Contract(value = "-> fail", pure = true)
+    private BBench() {
+        throw new AssertionError("No instances.");
+    }
+
+    /**
+     * Bootstraps the game registries, if not bootstrapped yet.
+     */
+    static void bootstrap() {
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+    }
+
+    /**
+     * Creates the list of item IDs. Registry items are cycled through, IDs past
+     * the registry size are unknown and should be ignored by the compilers.
+     *
+     * @param size List size
+     * @return A new list of item IDs
+     */
+    @CheckReturnValue
+    static List<String> ids(int size) {
+        List<ResourceLocation> keys = new ArrayList<>(BuiltInRegistries.ITEM.keySet());
+        keys.remove(BuiltInRegistries.ITEM.getKey(Items.AIR));
+        List<String> ids = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ids.add((i < keys.size()) ? keys.get(i).toString() : ("bscfsio_bench:unknown_" + i));
+        }
+        return ids;
+    }
+}
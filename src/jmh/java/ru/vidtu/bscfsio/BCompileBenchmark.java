@@ -0,0 +1,116 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024-2025 VidTu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.vidtu.bscfsio;
+
+import org.jspecify.annotations.NullMarked;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link BConfig#validatePostLoad()} with different item list sizes.
+ *
+ * @author VidTu
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+@NullMarked
+public class BCompileBenchmark {
+    /**
+     * Compilation inputs memo of the config, reset inline in the benchmark body.
+     */
+    private static final VarHandle COMPILED_FROM;
+
+    static {
+        try {
+            COMPILED_FROM = MethodHandles.privateLookupIn(BConfig.class, MethodHandles.lookup()).findVarHandle(BConfig.class, "compiledFrom", List.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Number of the item list entries.
+     */
+    @Param({"10", "100", "1000", "10000"})
+    public int entries;
+
+    /**
+     * Config to validate.
+     */
+    private BConfig config;
+
+    /**
+     * Prepares the config.
+     *
+     * @throws ReflectiveOperationException If unable to create the config
+     */
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        // Create the config.
+        BBench.bootstrap();
+        Constructor<BConfig> constructor = BConfig.class.getDeclaredConstructor();
+        constructor.setAccessible(true);
+        this.config = constructor.newInstance();
+
+        // Set the items.
+        Field items = BConfig.class.getDeclaredField("items");
+        items.setAccessible(true);
+        items.set(this.config, new ArrayList<>(BBench.ids(this.entries)));
+    }
+
+    /**
+     * Validates and compiles the config. The compilation inputs memo is dropped first, so
+     * {@link BConfig#validatePostLoad()} really compiles, the reset is a single field write.
+     *
+     * @return Validated config
+     */
+    @Benchmark
+    public BConfig validatePostLoad() {
+        COMPILED_FROM.set(this.config, (List<?>) null);
+        this.config.validatePostLoad();
+        return this.config;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024-2025 VidTu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.vidtu.bscfsio;
+
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.world.inventory.ClickType;
+import org.jspecify.annotations.NullMarked;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the steady-state {@link BDecision#decide(BSnapshot, int, int, int, int)} path.
+ * Run with {@code -prof gc}, {@code gc.alloc.rate.norm} must stay at zero bytes per operation.
+ *
+ * @author VidTu
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+@NullMarked
+public class BDecisionBenchmark {
+    /**
+     * Snapshot to decide with.
+     */
+    private BSnapshot snapshot;
+
+    /**
+     * Click types to decide, {@link ClickType#ordinal()}.
+     */
+    private int[] clicks;
+
+    /**
+     * Item raw IDs to decide.
+     */
+    private int[] items;
+
+    /**
+     * Prepares the snapshot and the inputs.
+     */
+    @Setup
+    public void setup() {
+        // Compile the snapshot.
+        BBench.bootstrap();
+        BPolicy[] policies = new BPolicy[ClickType.values().length];
+        Arrays.fill(policies, BPolicy.SLOT);
+        this.snapshot = new BSnapshot(true, policies, false, 0L, 1, 0L, 0, false, false, BMatcher.compile(BBench.ids(64)), BRules.EMPTY);
+
+        // Generate the inputs.
+        Random random = new Random(0L);
+        int types = ClickType.values().length;
+        int registry = BuiltInRegistries.ITEM.size();
+        this.clicks = new int[1024];
+        this.items = new int[1024];
+        for (int i = 0; i < 1024; i++) {
+            this.clicks[i] = random.nextInt(types);
+            this.items[i] = random.nextInt(registry);
+        }
+    }
+
+    /**
+     * Decides all inputs.
+     *
+     * @return Number of the blocked inputs
+     */
+    @Benchmark
+    public int decide() {
+        BSnapshot snapshot = this.snapshot;
+        int[] clicks = this.clicks;
+        int[] items = this.items;
+        int blocked = 0;
+        for (int i = 0; i < 1024; i++) {
+            if (BDecision.decide(snapshot, clicks[i], i % 54, 54, items[i]) == BDecision.BLOCK) {
+                blocked++;
+            }
+        }
+        return blocked;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024-2025 VidTu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.vidtu.bscfsio;
+
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.world.inventory.ClickType;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import org.jspecify.annotations.NullMarked;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link BSnapshot#isMovingProhibited(ItemStack)} with different protected list sizes.
+ *
+ * @author VidTu
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+@NullMarked
+public class BMatcherBenchmark {
+    /**
+     * Number of the protected items.
+     */
+    @Param({"1", "16", "256", "1024"})
+    public int protectedItems;
+
+    /**
+     * Snapshot to check the stacks with.
+     */
+    private BSnapshot snapshot;
+
+    /**
+     * Stacks to check, half of them are protected if possible.
+     */
+    private ItemStack[] stacks;
+
+    /**
+     * Prepares the snapshot and the stacks.
+     */
+    @Setup
+    public void setup() {
+        // Compile the snapshot.
+        BBench.bootstrap();
+        BMatcher matcher = BMatcher.compile(BBench.ids(this.protectedItems));
+        BPolicy[] policies = new BPolicy[ClickType.values().length];
+        this.snapshot = new BSnapshot(true, policies, false, 0L, 1, 0L, 0, false, false, matcher, BRules.EMPTY);
+
+        // Pick the stacks.
+        List<Item> items = new ArrayList<>();
+        BuiltInRegistries.ITEM.forEach(items::add);
+        Collections.shuffle(items, new Random(0L));
+        this.stacks = new ItemStack[256];
+        for (int i = 0; i < this.stacks.length; i++) {
+            this.stacks[i] = new ItemStack(items.get(i % items.size()));
+        }
+    }
+
+    /**
+     * Checks all stacks.
+     *
+     * @return Number of protected stacks
+     */
+    @Benchmark
+    public int isMovingProhibited() {
+        BSnapshot snapshot = this.snapshot;
+        int prohibited = 0;
+        for (ItemStack stack : this.stacks) {
+            if (snapshot.isMovingProhibited(stack)) {
+                prohibited++;
+            }
+        }
+        return prohibited;
+    }
+}
@@ -0,0 +1,421 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024-2025 VidTu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.vidtu.bscfsio;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.inventory.ClickType;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import org.jetbrains.annotations.Contract;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Headless replay of the {@link BRecorder} click recordings. Feeds the recorded clicks through the
+ * {@link BDecision} core against one or two configs and reports the throughput, the latency percentiles,
+ * and the verdict differences. With one config, the verdicts are compared with the recorded ones.
+ * <p>
+ * Only the clicked slot stack is recorded, so only the clicks judged by it ({@link BPolicy#SLOT} or
+ * {@link BPolicy#IGNORE} in every compared config) are compared. The clicks judged by the other stacks
+ * (the hotbar stack for {@link BPolicy#SWAP}, the gathered stacks for {@link BPolicy#GATHER}, the carried
+ * stack for {@link BPolicy#DRAG}) are skipped and counted in the report.
+ * <p>
+ * Usage: {@code ./gradlew replay -PreplayArgs="--config a.json [--config b.json] recording.bscr..."}
+ * <p>
+ * Only the vanilla registries are bootstrapped: modded items and item tags are not resolved,
+ * the stack rules are tested against the default stacks of the recorded items.
+ *
+ * @author VidTu
+ */
+@NullMarked
+public final class BReplay {
+    /**
+     * Number of the warmup passes.
+     */
+    private static final int WARMUP = 10;
+
+    /**
+     * Number of the measured passes.
+     */
+    private static final int PASSES = 20;
+
+    /**
+     * Number of the consecutive clicks timed together for the latencies, a single decision is below the timer resolution.
+     */
+    private static final int BATCH = 256;
+
+    /**
+     * Maximum number of the printed verdict differences.
+     */
+    private static final int DIFFERENCES = 20;
+
+    /**
+     * Click types {@link ClickType#ordinal()}.
+     */
+    private final int[] clicks;
+
+    /**
+     * Clicked slot indexes.
+     */
+    private final int[] slots;
+
+    /**
+     * Numbers of the menu slots.
+     */
+    private final int[] sizes;
+
+    /**
+     * Item raw IDs, {@code -1} if empty or unresolved.
+     */
+    private final int[] items;
+
+    /**
+     * Default item stacks, {@link ItemStack#EMPTY} if empty or unresolved.
+     */
+    private final ItemStack[] stacks;
+
+    /**
+     * Recorded verdicts.
+     */
+    private final byte[] verdicts;
+
+    /**
+     * Number of the clicks with unresolved items.
+     */
+    private final int unresolved;
+
+    /**
+     * Creates a new replay.
+     *
+     * @param clicks     Click types {@link ClickType#ordinal()}
+     * @param slots      Clicked slot indexes
+     * @param sizes      Numbers of the menu slots
+     * @param items      Item raw IDs, {@code -1} if empty or unresolved
+     * @param stacks     Default item stacks, {@link ItemStack#EMPTY} if empty or unresolved
+     * @param verdicts   Recorded verdicts
+     * @param unresolved Number of the clicks with unresolved items
+     */
+    @Contract(pure = true)
+    private BReplay(int[] clicks, int[] slots, int[] sizes, int[] items, ItemStack[] stacks, byte[] verdicts, int unresolved) {
+        this.clicks = clicks;
+        this.slots = slots;
+        this.sizes = sizes;
+        this.items = items;
+        this.stacks = stacks;
+        this.verdicts = verdicts;
+        this.unresolved = unresolved;
+    }
+
+    /**
+     * Runs the replay.
+     *
+     * @param args Command line arguments
+     * @throws IOException If unable to read the configs or the recordings
+     */
+    public static void main(String[] args) throws IOException {
+        // Parse the arguments.
+        List<Path> configs = new ArrayList<>(2);
+        List<Path> recordings = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if ("--config".equals(args[i]) && ((i + 1) < args.length)) {
+                configs.add(Path.of(args[++i]));
+            } else {
+                recordings.add(Path.of(args[i]));
+            }
+        }
+        if (configs.isEmpty() || (configs.size() > 2) || recordings.isEmpty()) {
+            System.err.println("Usage: BReplay --config <a.json> [--config <b.json>] <recording.bscr>...");
+            System.exit(2);
+            return;
+        }
+
+        // Load.
+        BBench.bootstrap();
+        BSnapshot a = load(configs.get(0));
+        BSnapshot b = ((configs.size() > 1) ? load(configs.get(1)) : null);
+        BReplay replay = read(recordings);
+        int count = replay.clicks.length;
+        System.out.printf("Replaying %d clicks from %d recordings, %d with unresolved items.%n", count, recordings.size(), replay.unresolved);
+        if (count == 0) return;
+
+        // Measure.
+        replay.measure("A (" + configs.get(0) + ")", a);
+        if (b != null) {
+            replay.measure("B (" + configs.get(1) + ")", b);
+        }
+
+        // Compare.
+        byte[] left = replay.decideAll(a);
+        byte[] right = ((b != null) ? replay.decideAll(b) : replay.verdicts);
+        String name = ((b != null) ? "B" : "recorded");
+        ClickType[] types = ClickType.values();
+        int differences = 0;
+        int skipped = 0;
+        for (int i = 0; i < count; i++) {
+            if (!replay.comparable(a, i) || ((b != null) && !replay.comparable(b, i))) {
+                skipped++;
+                continue;
+            }
+            if (left[i] == right[i]) continue;
+            if (differences++ >= DIFFERENCES) continue;
+            int item = replay.items[i];
+            int click = replay.clicks[i];
+            System.out.printf("  #%d %s slot=%d item=%s: A=%s, %s=%s%n", i, ((click >= 0) && (click < types.length)) ? types[click].name() : click,
+                    replay.slots[i], (item >= 0) ? BuiltInRegistries.ITEM.getKey(BuiltInRegistries.ITEM.byId(item)) : "empty",
+                    verdict(left[i]), name, verdict(right[i]));
+        }
+        System.out.printf("Verdict differences between A and %s: %d of %d.%n", name, differences, count - skipped);
+        if (skipped != 0) {
+            System.out.printf("Skipped %d clicks judged by the stacks not in the recording. (SWAP hotbar, GATHER matches, DRAG carried)%n", skipped);
+        }
+    }
+
+    /**
+     * Measures and prints the throughput and the latency percentiles.
+     *
+     * @param name     Config name
+     * @param snapshot Config snapshot
+     */
+    private void measure(String name, BSnapshot snapshot) {
+        // Warm up.
+        int count = this.clicks.length;
+        long blocked = 0L;
+        for (int pass = 0; pass < WARMUP; pass++) {
+            for (int i = 0; i < count; i++) {
+                blocked += this.decide(snapshot, i);
+            }
+        }
+
+        // Measure the throughput.
+        blocked = 0L;
+        long start = System.nanoTime();
+        for (int pass = 0; pass < PASSES; pass++) {
+            for (int i = 0; i < count; i++) {
+                blocked += this.decide(snapshot, i);
+            }
+        }
+        long elapsed = Math.max(1L, System.nanoTime() - start);
+
+        // Measure the per-click latencies of the batches.
+        int batches = ((count + BATCH - 1) / BATCH);
+        double[] latencies = new double[batches * PASSES];
+        long sink = 0L;
+        for (int pass = 0; pass < PASSES; pass++) {
+            for (int batch = 0; batch < batches; batch++) {
+                int from = (batch * BATCH);
+                int to = Math.min(count, from + BATCH);
+                long batchStart = System.nanoTime();
+                for (int i = from; i < to; i++) {
+                    sink += this.decide(snapshot, i);
+                }
+                latencies[(pass * batches) + batch] = ((System.nanoTime() - batchStart) / (double) (to - from));
+            }
+        }
+        if (sink != blocked) throw new AssertionError("Non-deterministic verdicts: " + sink + " != " + blocked);
+        Arrays.sort(latencies);
+        int samples = latencies.length;
+
+        // Print.
+        System.out.printf("%s: %.0f clicks/s, per click in batches of %d: p50=%.1f ns, p99=%.1f ns, max=%.1f ns, %d blocked%n", name,
+                (count * (double) PASSES) / (elapsed / 1_000_000_000.0D), BATCH, latencies[(int) ((samples - 1) * 0.50D)],
+                latencies[(int) ((samples - 1) * 0.99D)], latencies[samples - 1], blocked / PASSES);
+    }
+
+    /**
+     * Decides all the clicks.
+     *
+     * @param snapshot Config snapshot
+     * @return New array of the verdicts
+     */
+    private byte[] decideAll(BSnapshot snapshot) {
+        int count = this.clicks.length;
+        byte[] verdicts = new byte[count];
+        for (int i = 0; i < count; i++) {
+            verdicts[i] = (byte) this.decide(snapshot, i);
+        }
+        return verdicts;
+    }
+
+    /**
+     * Decides one click the way the client does for the clicked stack.
+     *
+     * @param snapshot Config snapshot
+     * @param index    Click index
+     * @return {@link BDecision#PASS} or {@link BDecision#BLOCK}
+     */
+    private int decide(BSnapshot snapshot, int index) {
+        int item = this.items[index];
+        int verdict = BDecision.decide(snapshot, this.clicks[index], this.slots[index], this.sizes[index], item);
+        if (verdict != BDecision.INSPECT) return verdict;
+        return (snapshot.rules().test(this.stacks[index], item) ? BDecision.BLOCK : BDecision.PASS);
+    }
+
+    /**
+     * Gets whether the click verdict depends only on the recorded clicked slot stack.
+     *
+     * @param snapshot Config snapshot
+     * @param index    Click index
+     * @return Whether the click policy is {@link BPolicy#SLOT} or {@link BPolicy#IGNORE}
+     */
+    @Contract(pure = true)
+    private boolean comparable(BSnapshot snapshot, int index) {
+        BPolicy policy = BDecision.policy(snapshot, this.clicks[index]);
+        return ((policy == BPolicy.SLOT) || (policy == BPolicy.IGNORE));
+    }
+
+    /**
+     * Loads and compiles the client config, the same way the client does. The recordings are made on the client,
+     * so the replay uses the client's {@link BConfig}, not the dedicated server's {@link BServerConfig}.
+     *
+     * @param path Config file path
+     * @return Compiled config snapshot
+     * @throws IOException If unable to read the config
+     */
+    private static BSnapshot load(Path path) throws IOException {
+        Gson gson = new GsonBuilder()
+                .setLenient()
+                .create();
+        BConfig config = gson.fromJson(Files.readString(path, StandardCharsets.UTF_8), BConfig.class);
+        if (config == null) {
+            config = gson.fromJson("{}", BConfig.class);
+        }
+        config.validatePostLoad();
+        return BConfig.compile(config);
+    }
+
+    /**
+     * Reads the recordings.
+     *
+     * @param paths Recording file paths
+     * @return A new replay of all the recorded clicks
+     * @throws IOException If unable to read any recording or it is malformed
+     */
+    private static BReplay read(List<Path> paths) throws IOException {
+        // Prepare the buffers.
+        int capacity = 1024;
+        int count = 0;
+        int unresolved = 0;
+        int[] clicks = new int[capacity];
+        int[] slots = new int[capacity];
+        int[] sizes = new int[capacity];
+        int[] items = new int[capacity];
+        ItemStack[] stacks = new ItemStack[capacity];
+        byte[] verdicts = new byte[capacity];
+
+        // Read every file.
+        for (Path path : paths) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+                // Check the header.
+                if (in.readInt() != BRecorder.MAGIC) throw new IOException("Not a BSCFSIO recording: " + path);
+                short version = in.readShort();
+                if (version != BRecorder.VERSION) throw new IOException("Unsupported BSCFSIO recording version " + version + ": " + path);
+
+                // Read the records.
+                @Nullable Item[] palette = new Item[0];
+                while (true) {
+                    int kind = in.read();
+                    if (kind < 0) break;
+                    try {
+                        if (kind == BRecorder.ITEM) {
+                            // Resolve the palette entry.
+                            int index = in.readShort();
+                            byte[] id = new byte[in.readUnsignedShort()];
+                            in.readFully(id);
+                            if (index >= palette.length) {
+                                palette = Arrays.copyOf(palette, Math.max(index + 1, palette.length * 2));
+                            }
+                            ResourceLocation key = ResourceLocation.tryParse(new String(id, StandardCharsets.UTF_8));
+                            palette[index] = ((key != null) ? BuiltInRegistries.ITEM.getOptional(key).orElse(null) : null);
+                            continue;
+                        }
+                        if (kind != BRecorder.CLICK) throw new IOException("Unknown record kind " + kind + ": " + path);
+
+                        // Grow the buffers.
+                        if (count == capacity) {
+                            capacity *= 2;
+                            clicks = Arrays.copyOf(clicks, capacity);
+                            slots = Arrays.copyOf(slots, capacity);
+                            sizes = Arrays.copyOf(sizes, capacity);
+                            items = Arrays.copyOf(items, capacity);
+                            stacks = Arrays.copyOf(stacks, capacity);
+                            verdicts = Arrays.copyOf(verdicts, capacity);
+                        }
+
+                        // Read the click.
+                        in.readLong(); // Time.
+                        in.readInt(); // Container.
+                        slots[count] = in.readShort();
+                        sizes[count] = in.readShort();
+                        in.readShort(); // Button.
+                        clicks[count] = in.readByte();
+                        int index = in.readShort();
+                        verdicts[count] = in.readByte();
+                        Item item = (((index >= 0) && (index < palette.length)) ? palette[index] : null);
+                        if ((index >= 0) && ((item == null) || (item == Items.AIR))) {
+                            unresolved++;
+                            item = null;
+                        }
+                        items[count] = ((item != null) ? BuiltInRegistries.ITEM.getId(item) : -1);
+                        stacks[count] = ((item != null) ? new ItemStack(item) : ItemStack.EMPTY);
+                        count++;
+                    } catch (EOFException e) {
+                        // Truncated last record, e.g. if the game has crashed.
+                        break;
+                    }
+                }
+            }
+        }
+
+        // Trim.
+        return new BReplay(Arrays.copyOf(clicks, count), Arrays.copyOf(slots, count), Arrays.copyOf(sizes, count),
+                Arrays.copyOf(items, count), Arrays.copyOf(stacks, count), Arrays.copyOf(verdicts, count), unresolved);
+    }
+
+    /**
+     * Gets the verdict name.
+     *
+     * @param verdict Verdict
+     * @return Verdict name
+     */
+    @Contract(pure = true)
+    private static String verdict(int verdict) {
+        return ((verdict == BDecision.BLOCK) ? "BLOCK" : "PASS");
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024-2025 VidTu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.vidtu.bscfsio;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.player.LocalPlayer;
+import net.minecraft.world.entity.player.Inventory;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.inventory.AbstractContainerMenu;
+import net.minecraft.world.inventory.ClickType;
+import net.minecraft.world.item.ItemStack;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Contract;
+import org.jspecify.annotations.NullMarked;
+import ru.vidtu.bscfsio.api.BApi;
+
+import java.util.BitSet;
+
+/**
+ * Implementation of the {@link BApi}. Slot stacks of the current menu are tested via the {@link BMask},
+ * stacks of the other menus are tested directly, so the mask used by the click path is never rebuilt for them.
+ *
+ * @author VidTu
+ */
+@ApiStatus.Internal
+@NullMarked
+final class BApiImpl implements BApi {
+    /**
+     * Shared API instance.
+     */
+    static final BApiImpl INSTANCE = new BApiImpl();
+
+    /**
+     * Creates a new API.
+     */
+    @Contract(pure = true)
+    private BApiImpl() {
+        // Empty
+    }
+
+    @Override
+    public boolean enabled() {
+        checkThread();
+        return BConfig.snapshot().enabled();
+    }
+
+    @Override
+    public BitSet protectedSlots(AbstractContainerMenu menu) {
+        // Skip if disabled.
+        checkThread();
+        BSnapshot snapshot = BConfig.snapshot();
+        BitSet mask = new BitSet();
+        if (!snapshot.enabled()) return mask;
+
+        // Copy the mask or compute it locally for the other menu.
+        boolean current = isCurrent(menu);
+        for (int i = 0, size = menu.slots.size(); i < size; i++) {
+            if (!isProtected(snapshot, menu, current, i)) continue;
+            mask.set(i);
+        }
+        return mask;
+    }
+
+    @Override
+    public BitSet blockedClicks(Player player, int[] slots, int[] buttons, ClickType[] types) {
+        // Validate.
+        int length = slots.length;
+        if ((buttons.length != length) || (types.length != length)) {
+            throw new IllegalArgumentException("BSCFSIO: Planned click arrays have different lengths. (slots: " + length + ", buttons: " + buttons.length + ", types: " + types.length + ')');
+        }
+        checkThread();
+
+        // Skip if disabled.
+        BSnapshot snapshot = BConfig.snapshot();
+        BitSet blocked = new BitSet();
+        if (!snapshot.enabled()) return blocked;
+
+        // Check all clicks against the current menu state.
+        AbstractContainerMenu menu = player.containerMenu;
+        boolean current = isCurrent(menu);
+        int menuSize = menu.slots.size();
+        ItemStack carried = menu.getCarried();
+        boolean carriedProtected = snapshot.isMovingProhibited(carried);
+        int gather = -1;
+        for (int i = 0; i < length; i++) {
+            int slot = slots[i];
+            boolean inBounds = ((slot >= 0) && (slot < menuSize));
+            boolean block = switch (snapshot.policy(types[i].ordinal())) {
+                case IGNORE -> false;
+                case SLOT -> inBounds && isProtected(snapshot, menu, current, slot);
+                case SWAP -> inBounds && (isProtected(snapshot, menu, current, slot) || snapshot.isMovingProhibited(swapped(player, buttons[i])));
+                case GATHER -> {
+                    // Gathering doesn't depend on the clicked slot, compute it once.
+                    if (gather < 0) {
+                        gather = (gathers(snapshot, menu, current, carried) ? 1 : 0);
+                    }
+                    yield inBounds && (gather != 0);
+                }
+                case DRAG -> carriedProtected;
+            };
+            if (!block) continue;
+            blocked.set(i);
+        }
+        return blocked;
+    }
+
+    @Contract(pure = true)
+    @Override
+    public String toString() {
+        return "BSCFSIO/BApiImpl{}";
+    }
+
+    /**
+     * Gets whether the menu is the current menu of the client player, i.e. the one the {@link BMask} is built for.
+     *
+     * @param menu Menu to check
+     * @return Whether the menu is the current one
+     */
+    private static boolean isCurrent(AbstractContainerMenu menu) {
+        LocalPlayer player = Minecraft.getInstance().player;
+        return ((player != null) && (player.containerMenu == menu));
+    }
+
+    /**
+     * Gets whether the slot is protected.
+     *
+     * @param snapshot Current config snapshot
+     * @param menu     Menu to check
+     * @param current  Whether the menu is the current one, tested via the {@link BMask}
+     * @param slot     Slot index, must be within the menu bounds
+     * @return Whether the slot's stack should be prohibited from moving
+     */
+    private static boolean isProtected(BSnapshot snapshot, AbstractContainerMenu menu, boolean current, int slot) {
+        return (current ? BMask.isProtected(menu, slot) : snapshot.isMovingProhibited(menu.slots.get(slot).getItem()));
+    }
+
+    /**
+     * Gets whether any protected stack would be gathered to the carried stack.
+     *
+     * @param snapshot Current config snapshot
+     * @param menu     Menu to check
+     * @param current  Whether the menu is the current one
+     * @param carried  Carried stack
+     * @return Whether any protected stack would be gathered
+     */
+    private static boolean gathers(BSnapshot snapshot, AbstractContainerMenu menu, boolean current, ItemStack carried) {
+        // Skip if nothing is carried.
+        if (carried.isEmpty()) return false;
+
+        // Check all stacks that would be gathered.
+        for (int i = 0, size = menu.slots.size(); i < size; i++) {
+            if (!isProtected(snapshot, menu, current, i) || !ItemStack.isSameItemSameTags(menu.slots.get(i).getItem(), carried)) continue;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Gets the inventory stack swapped by the {@link BPolicy#SWAP} policy.
+     *
+     * @param player Player clicked the slot
+     * @param button Button ID, the inventory slot index to swap with
+     * @return Swapped inventory stack, {@link ItemStack#EMPTY} if none
+     */
+    private static ItemStack swapped(Player player, int button) {
+        Inventory inventory = player.getInventory();
+        return (((button >= 0) && (button < inventory.getContainerSize())) ? inventory.getItem(button) : ItemStack.EMPTY);
+    }
+
+    /**
+     * Checks that the API is called from the client thread.
+     *
+     * @throws IllegalStateException If called not from the client thread
+     */
+    private static void checkThread() {
+        if (Minecraft.getInstance().isSameThread()) return;
+        throw new IllegalStateException("BSCFSIO: API must be called only from the client thread. (thread: " + Thread.currentThread() + ')');
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024-2025 VidTu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.vidtu.bscfsio;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Contract;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * JFR event for the handled inventory click decisions.
+ *
+ * @author VidTu
+ */
+@ApiStatus.Internal
+@Name("ru.vidtu.bscfsio.Click")
+@Label("BSCFSIO Click")
+@Category("BSCFSIO")
+@Description("Inventory click decision.")
+@StackTrace(false)
+@NullMarked
+public final class BClickEvent extends Event {
+    /**
+     * Click type name.
+     */
+    @Label("Click Type")
+    public String click = "";
+
+    /**
+     * Clicked slot index.
+     */
+    @Label("Slot")
+    public int slot;
+
+    /**
+     * Item registry raw ID of the clicked slot, {@code -1} if none.
+     */
+    @Label("Item")
+    public int item;
+
+    /**
+     * Whether the click has been blocked.
+     */
+    @Label("Blocked")
+    public boolean blocked;
+
+    /**
+     * Creates a new event.
+     */
+    @Contract(pure = true)
+    public BClickEvent() {
+        // Empty
+    }
+}
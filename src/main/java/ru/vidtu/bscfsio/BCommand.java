@@ -0,0 +1,154 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024-2025 VidTu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.vidtu.bscfsio;
+
+import com.mojang.brigadier.CommandDispatcher;
+import net.fabricmc.fabric.api.client.command.v2.ClientCommandManager;
+import net.fabricmc.fabric.api.client.command.v2.FabricClientCommandSource;
+import net.minecraft.commands.CommandBuildContext;
+import net.minecraft.commands.arguments.item.ItemArgument;
+import net.minecraft.network.chat.Component;
+import net.minecraft.world.item.Item;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Contract;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.nio.file.Path;
+
+/**
+ * BSCFSIO client commands.
+ *
+ * @author VidTu
+ */
+@ApiStatus.Internal
+@NullMarked
+final class BCommand {
+    /**
+     * An instance of this class cannot be created.
+     *
+     * @throws AssertionError Always
+     * @deprecated Always throws
+     */
+    @Deprecated(forRemoval = true)
+    @Contract(value = "-> fail", pure = true)
+    private BCommand() {
+        throw new AssertionError("No instances.");
+    }
+
+    /**
+     * Registers the {@code /bscfsio} command.
+     *
+     * @param dispatcher Client command dispatcher
+     * @param context    Command build context, used to parse the items
+     */
+    static void register(CommandDispatcher<FabricClientCommandSource> dispatcher, CommandBuildContext context) {
+        dispatcher.register(ClientCommandManager.literal("bscfsio")
+                .then(ClientCommandManager.literal("protect")
+                        .then(ClientCommandManager.argument("item", ItemArgument.item(context))
+                                .executes(ctx -> protect(ctx.getSource(), ItemArgument.getItem(ctx, "item").getItem(), /*protect=*/true))))
+                .then(ClientCommandManager.literal("unprotect")
+                        .then(ClientCommandManager.argument("item", ItemArgument.item(context))
+                                .executes(ctx -> protect(ctx.getSource(), ItemArgument.getItem(ctx, "item").getItem(), /*protect=*/false))))
+                .then(ClientCommandManager.literal("record")
+                        .then(ClientCommandManager.literal("start")
+                                .executes(ctx -> {
+                                    // Start.
+                                    Path path = BRecorder.start();
+                                    if (path == null) {
+                                        ctx.getSource().sendError(Component.translatable("bscfsio.record.running"));
+                                        return 0;
+                                    }
+                                    ctx.getSource().sendFeedback(Component.translatable("bscfsio.record.started", path.getFileName().toString()));
+                                    return 1;
+                                }))
+                        .then(ClientCommandManager.literal("stop")
+                                .executes(ctx -> {
+                                    // Stop.
+                                    Path path = BRecorder.stop();
+                                    if (path == null) {
+                                        ctx.getSource().sendError(Component.translatable("bscfsio.record.stopped"));
+                                        return 0;
+                                    }
+                                    ctx.getSource().sendFeedback(Component.translatable("bscfsio.record.saved", path.getFileName().toString()));
+                                    return 1;
+                                })))
+                .then(ClientCommandManager.literal("stats")
+                        .executes(ctx -> {
+                            // Send the report.
+                            FabricClientCommandSource source = ctx.getSource();
+                            for (Component line : BStats.report()) {
+                                source.sendFeedback(line);
+                            }
+                            return 1;
+                        })
+                        .then(ClientCommandManager.literal("reset")
+                                .executes(ctx -> {
+                                    // Reset.
+                                    BStats.reset();
+                                    ctx.getSource().sendFeedback(Component.translatable("bscfsio.stats.reset"));
+                                    return 1;
+                                }))));
+    }
+
+    /**
+     * Protects or unprotects the item and sends the feedback.
+     *
+     * @param source  Command source
+     * @param item    Item to protect or unprotect
+     * @param protect Whether to protect the item, {@code false} to unprotect
+     * @return Command result, {@code 1} if changed, {@code 0} otherwise
+     * @see BConfig#protect(Item, boolean)
+     */
+    private static int protect(FabricClientCommandSource source, Item item, boolean protect) {
+        // Protect or unprotect.
+        String profile = BConfig.profile();
+        boolean changed = BConfig.protect(item, protect);
+
+        // Send the feedback.
+        Component feedback = feedback(item.getDescription(), protect, changed, profile);
+        if (changed) {
+            source.sendFeedback(feedback);
+            return 1;
+        }
+        source.sendError(feedback);
+        return 0;
+    }
+
+    /**
+     * Creates the protection change feedback.
+     *
+     * @param name    Item name
+     * @param protect Whether the item has been protected, {@code false} if unprotected
+     * @param changed Whether the items have been changed
+     * @param profile Normalized address of the changed profile, {@code null} if the global items have been changed
+     * @return A new feedback component
+     */
+    @Contract(pure = true)
+    static Component feedback(Component name, boolean protect, boolean changed, @Nullable String profile) {
+        String key = ((protect ? "bscfsio.protect.added" : "bscfsio.protect.removed") + (changed ? "" : ".unchanged"));
+        return ((profile != null) ? Component.translatable(key + ".profile", name, profile) : Component.translatable(key, name));
+    }
+}
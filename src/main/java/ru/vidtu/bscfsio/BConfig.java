@@ -24,7 +24,6 @@
 
 package ru.vidtu.bscfsio;
 
-import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
@@ -33,26 +32,36 @@ import me.shedaniel.autoconfig.ConfigData;
 import me.shedaniel.autoconfig.ConfigHolder;
 import me.shedaniel.autoconfig.annotation.Config;
 import me.shedaniel.autoconfig.annotation.ConfigEntry;
-import me.shedaniel.autoconfig.serializer.GsonConfigSerializer;
+import net.fabricmc.fabric.api.event.lifecycle.v1.CommonLifecycleEvents;
+import net.fabricmc.fabric.api.event.registry.RegistryIdRemapCallback;
+import net.minecraft.Util;
 import net.minecraft.client.gui.screens.Screen;
 import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.InteractionResult;
+import net.minecraft.world.inventory.ClickType;
 import net.minecraft.world.item.Item;
-import net.minecraft.world.item.ItemStack;
-import net.minecraft.world.item.Items;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.CheckReturnValue;
 import org.jetbrains.annotations.Contract;
-import org.jetbrains.annotations.Unmodifiable;
 import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -77,15 +86,61 @@ public final class BConfig implements ConfigData {
     @ConfigEntry.Gui.Tooltip
     private boolean enabled = true;
 
+    /**
+     * Whether to block shift-clicking ({@link ClickType#QUICK_MOVE}) protected items, {@code true} by default.
+     */
+    @ConfigEntry.Gui.Tooltip
+    private boolean quickMove = true;
+
+    /**
+     * Whether to block number key and offhand swapping ({@link ClickType#SWAP}) protected items, {@code false} by default.
+     */
+    @ConfigEntry.Gui.Tooltip(count = 2)
+    private boolean swap;
+
+    /**
+     * Whether to block throwing ({@link ClickType#THROW}) protected items from slots, {@code false} by default.
+     */
+    @ConfigEntry.Gui.Tooltip
+    private boolean throwing;
+
+    /**
+     * Whether to block double-click gathering ({@link ClickType#PICKUP_ALL}) of protected items, {@code false} by default.
+     */
+    @ConfigEntry.Gui.Tooltip
+    private boolean pickupAll;
+
+    /**
+     * Whether to block drag-splitting ({@link ClickType#QUICK_CRAFT}) protected items, {@code false} by default.
+     */
+    @ConfigEntry.Gui.Tooltip
+    private boolean quickCraft;
+
     /**
      * Whether to use a special sound when item movement is prohibited, {@code true} by default.
      */
     @ConfigEntry.Gui.Tooltip(count = 2)
     private boolean sound = true;
 
+    /**
+     * Time in milliseconds after a played sound to merge the following sounds into it, {@code 150} by default.
+     */
+    @ConfigEntry.Gui.Tooltip(count = 2)
+    @ConfigEntry.BoundedDiscrete(max = 1000L)
+    private long soundWindow = 150L;
+
+    /**
+     * Maximum number of the sounds played per second, {@code 4} by default.
+     */
+    @ConfigEntry.Gui.Tooltip
+    @ConfigEntry.BoundedDiscrete(min = 1L, max = 20L)
+    private int soundRate = 4;
+
     /**
      * Time in milliseconds to display visual overlay when item movement is prohibited, {@code 250} by default.
-     * Set to {@code 0} to disable.
+     * Set to {@code 0} to disable. Re-enabling needs a restart if the overlays were disabled at startup.
+     *
+     * @see BMixinPlugin#OVERLAY
      */
     @ConfigEntry.Gui.Tooltip(count = 3)
     @ConfigEntry.BoundedDiscrete(max = 1000L)
@@ -99,23 +154,144 @@ public final class BConfig implements ConfigData {
     private int visualColor = 0x80FF0000;
 
     /**
-     * List of item IDs to prohibit moving with shift-clicking, {@code ["totem_of_undying"]} by default. Unknown or
-     * empty IDs are silently ignored. Not used directly, cached into {@link #itemSet} via {@link #validatePostLoad()}.
+     * Whether to always mark the protected slots with the visual overlay color, {@code false} by default.
+     * Enabling needs a restart if the overlays were disabled at startup.
      *
-     * @see #itemSet
+     * @see BMixinPlugin#OVERLAY
+     */
+    @ConfigEntry.Gui.Tooltip(count = 3)
+    private boolean lockIndicator;
+
+    /**
+     * Whether to show the stats HUD line, {@code false} by default.
      */
     @ConfigEntry.Gui.Tooltip(count = 2)
+    private boolean statsHud;
+
+    /**
+     * List of item IDs, {@code #namespace:path} item tags, and item ID patterns to prohibit moving with shift-clicking,
+     * {@code ["totem_of_undying"]} by default. Unknown or empty IDs, tags, and invalid patterns are silently ignored.
+     * Not used directly, compiled into {@link #matcher} via {@link #validatePostLoad()}. Tags are expanded when synced
+     * by the server, patterns are expanded against the item registry.
+     *
+     * @see #matcher
+     * @see BMatcher#isPattern(String)
+     */
+    @ConfigEntry.Gui.Tooltip(count = 4)
     private List<@Nullable String> items = Lists.newArrayList("totem_of_undying");
 
     /**
-     * List of item IDs to prohibit moving with shift-clicking, {@link Items#TOTEM_OF_UNDYING} by default.
-     * Not saved, cached from {@link #items} via {@link #validatePostLoad()}.
+     * Compiled matcher of items to prohibit moving with shift-clicking.
+     * Not saved, compiled from {@link #items} via {@link #validatePostLoad()}.
      *
      * @see #items
      */
     @ConfigEntry.Gui.Excluded
-    @Unmodifiable
-    private transient ImmutableSet<Item> itemSet = ImmutableSet.of(Items.TOTEM_OF_UNDYING);
+    private transient BMatcher matcher = BMatcher.EMPTY;
+
+    /**
+     * List of rules to prohibit moving matching stacks with shift-clicking, empty by default. Invalid rules
+     * are logged and ignored. Not used directly, compiled into {@link #ruleSet} via {@link #validatePostLoad()}.
+     *
+     * @see #ruleSet
+     * @see BRule
+     */
+    @ConfigEntry.Gui.Tooltip(count = 4)
+    private List<@Nullable String> rules = Lists.newArrayList();
+
+    /**
+     * Compiled rules to prohibit moving matching stacks with shift-clicking.
+     * Not saved, compiled from {@link #rules} via {@link #validatePostLoad()}.
+     *
+     * @see #rules
+     */
+    @ConfigEntry.Gui.Excluded
+    private transient BRules ruleSet = BRules.EMPTY;
+
+    /**
+     * List of per-server profiles, empty by default. Each profile is {@code <address> = <item> [item...]} and replaces
+     * {@link #items} while connected to the server. Not used directly, parsed into {@link #profileItems} via {@link #validatePostLoad()}.
+     *
+     * @see BProfiles
+     */
+    @ConfigEntry.Gui.Tooltip(count = 3)
+    private List<@Nullable String> profiles = Lists.newArrayList();
+
+    /**
+     * Parsed item lists of the per-server profiles by the normalized server address.
+     * Not saved, parsed from {@link #profiles} via {@link #validatePostLoad()}.
+     *
+     * @see #profiles
+     */
+    @ConfigEntry.Gui.Excluded
+    private transient Map<String, List<String>> profileItems = Map.of();
+
+    /**
+     * Current compiled config snapshot, {@link BSnapshot#DISABLED} if not loaded yet.
+     *
+     * @see #snapshot()
+     * @see #publish(BConfig)
+     */
+    @ConfigEntry.Gui.Excluded
+    private static volatile BSnapshot snapshot = BSnapshot.DISABLED;
+
+    /**
+     * Background config serializer, {@code null} if not registered yet.
+     *
+     * @see #flush()
+     */
+    @ConfigEntry.Gui.Excluded
+    @Nullable
+    private static volatile BSerializer serializer;
+
+    /**
+     * Pending config registration, {@code null} if not loading. Accessed only from the client thread.
+     *
+     * @see #init()
+     * @see #await()
+     */
+    @ConfigEntry.Gui.Excluded
+    @Nullable
+    private static CompletableFuture<Runnable> loading;
+
+    /**
+     * Nanoseconds spent reading, parsing, and validating the config in background, {@code null} if not preloaded.
+     *
+     * @see #timings()
+     */
+    @ConfigEntry.Gui.Excluded
+    private static volatile long @Nullable [] timings;
+
+    /**
+     * Number of the registry changes requiring recompilation. Compared by {@link #validatePostLoad()}.
+     *
+     * @see #recompile()
+     */
+    @ConfigEntry.Gui.Excluded
+    private static volatile int generation;
+
+    /**
+     * Members of the item tags referenced by the config at the last tags sync by the tag entries. Accessed only from the client thread.
+     *
+     * @see #retag()
+     */
+    @ConfigEntry.Gui.Excluded
+    private static Map<String, List<Item>> tagContents = Map.of();
+
+    /**
+     * Whether the overlays have been warned about requiring a restart.
+     *
+     * @see #publish(BConfig)
+     */
+    @ConfigEntry.Gui.Excluded
+    private static volatile boolean overlayWarned;
+
+    /**
+     * Inputs {@link #matcher}, {@link #ruleSet}, and {@link #profileItems} have been compiled from, {@code null} if not compiled.
+     */
+    @ConfigEntry.Gui.Excluded
+    @Nullable
+    private transient List<Object> compiledFrom;
 
     /**
      * Creates a new config.
@@ -126,7 +302,38 @@ public final class BConfig implements ConfigData {
     }
 
     /**
-     * Recalculates the item set.
+     * Creates a copy of this config for writing.
+     *
+     * @return A new config with the same saved values
+     */
+    @Contract(pure = true)
+    BConfig copy() {
+        BConfig copy = new BConfig();
+        copy.enabled = this.enabled;
+        copy.quickMove = this.quickMove;
+        copy.swap = this.swap;
+        copy.throwing = this.throwing;
+        copy.pickupAll = this.pickupAll;
+        copy.quickCraft = this.quickCraft;
+        copy.sound = this.sound;
+        copy.soundWindow = this.soundWindow;
+        copy.soundRate = this.soundRate;
+        copy.visual = this.visual;
+        copy.visualColor = this.visualColor;
+        copy.lockIndicator = this.lockIndicator;
+        copy.statsHud = this.statsHud;
+        copy.items = new ArrayList<>(this.items);
+        copy.matcher = this.matcher;
+        copy.rules = new ArrayList<>(this.rules);
+        copy.ruleSet = this.ruleSet;
+        copy.profiles = new ArrayList<>(this.profiles);
+        copy.profileItems = this.profileItems;
+        copy.compiledFrom = this.compiledFrom;
+        return copy;
+    }
+
+    /**
+     * Recompiles the item matcher and the rules.
      */
     @ApiStatus.Internal
     @Override
@@ -139,43 +346,186 @@ public final class BConfig implements ConfigData {
                 .distinct()
                 .collect(Collectors.toCollection(ArrayList::new));
 
-        // Recalculate the cache. Ignore invalid/null items.
-        this.itemSet = this.items.stream()
+        this.rules = this.rules.stream()
                 .filter(Objects::nonNull)
-                .map(ResourceLocation::tryParse)
+                .map(String::strip)
+                .filter(Predicate.not(String::isBlank))
+                .distinct()
+                .collect(Collectors.toCollection(ArrayList::new));
+
+        this.profiles = this.profiles.stream()
                 .filter(Objects::nonNull)
-                .map(BuiltInRegistries.ITEM::get)
-                .filter(Predicate.not(Predicate.isEqual(Items.AIR)))
-                .collect(ImmutableSet.toImmutableSet());
+                .map(String::strip)
+                .filter(Predicate.not(String::isBlank))
+                .distinct()
+                .collect(Collectors.toCollection(ArrayList::new));
+
+        // Clamp the sound limits.
+        this.soundWindow = Math.max(0L, Math.min(1000L, this.soundWindow));
+        this.soundRate = Math.max(1, Math.min(20, this.soundRate));
+
+        // Skip if nothing has changed since the last compilation. (e.g. validated again after preloading)
+        List<Object> inputs = List.of(List.copyOf(this.items), List.copyOf(this.rules), List.copyOf(this.profiles), generation);
+        if (inputs.equals(this.compiledFrom)) return;
+        this.compiledFrom = inputs;
+
+        // Recompile the matcher and the rules. Ignore invalid/null items and rules.
+        this.matcher = BMatcher.compile(this.items);
+        this.ruleSet = BRules.compile(this.rules);
+
+        // Reparse the profiles, drop the compiled ones.
+        this.profileItems = BProfiles.parse(this.profiles);
+        BProfiles.invalidate();
     }
 
     /**
-     * Registers and loads the config.
+     * Starts loading the config. The config file is read, parsed, and validated in background,
+     * the config is registered and published on the first {@link #await()}.
+     *
+     * @see #await()
      */
     static void init() {
         // Log. (**DEBUG**)
-        LOGGER.debug("BSCFSIO: Loading config...");
+        LOGGER.debug("BSCFSIO: Loading config in background...");
 
-        // Register the config.
+        // Preload the config in background.
         Gson gson = new GsonBuilder()
                 .setLenient()
                 .setPrettyPrinting()
                 .disableHtmlEscaping()
                 .create();
-        AutoConfig.register(BConfig.class, (config, configClass) -> new GsonConfigSerializer<>(config, configClass, gson));
-        AutoConfig.getConfigHolder(BConfig.class).registerLoadListener((holder, config) -> {
+        Config definition = BConfig.class.getAnnotation(Config.class);
+        BSerializer created = new BSerializer(definition, BConfig.class, gson);
+        loading = CompletableFuture.supplyAsync(() -> preload(created, gson), Util.backgroundExecutor())
+                .thenApply(preloaded -> (Runnable) () -> finish(created, gson, preloaded));
+
+        // Recompile on item raw IDs remapping. (e.g. by the registry sync)
+        RegistryIdRemapCallback.event(BuiltInRegistries.ITEM).register(state -> recompile());
+
+        // Re-expand the changed item tags on client tags sync. (e.g. on join or datapack reload)
+        CommonLifecycleEvents.TAGS_LOADED.register((registries, client) -> {
+            if (!client) return;
+            retag();
+        });
+    }
+
+    /**
+     * Waits for the config to be preloaded, then registers and publishes it, if not yet. Must be called only from the client thread.
+     * Does nothing if the config is not being loaded via {@link #init()}.
+     *
+     * @see #init()
+     */
+    public static void await() {
+        // Skip if loaded or not loading.
+        CompletableFuture<Runnable> future = loading;
+        if ((serializer != null) || (future == null)) return;
+
+        // Wait and finish.
+        loading = null;
+        future.join().run();
+    }
+
+    /**
+     * Reads, parses, and validates the config file. Called in background.
+     *
+     * @param created Serializer to get the config file path from
+     * @param gson    GSON instance to parse the config with
+     * @return Validated config, {@code null} if the file doesn't exist or can't be preloaded
+     */
+    @CheckReturnValue
+    @Nullable
+    private static BConfig preload(BSerializer created, Gson gson) {
+        Path path = created.path();
+        try {
+            // Log. (**DEBUG**)
+            LOGGER.debug("BSCFSIO: Preloading config... (path: {})", path);
+
+            // Read.
+            long start = System.nanoTime();
+            if (!Files.isRegularFile(path)) return null;
+            byte[] data = Files.readAllBytes(path);
+            long read = System.nanoTime();
+
+            // Parse.
+            BConfig config = gson.fromJson(new String(data, StandardCharsets.UTF_8), BConfig.class);
+            if (config == null) return null;
+            long parse = System.nanoTime();
+
+            // Validate.
             config.validatePostLoad();
+            long validate = System.nanoTime();
+
+            // Log.
+            timings = new long[]{read - start, parse - read, validate - parse};
+            return config;
+        } catch (Throwable t) {
+            // Log.
+            LOGGER.warn("BSCFSIO: Unable to preload config, it will be loaded on the client thread. (path: {})", path, t);
+            return null;
+        }
+    }
+
+    /**
+     * Registers and publishes the config. Called on the client thread.
+     *
+     * @param created   Serializer to register the config with
+     * @param gson      GSON instance to watch the config with
+     * @param preloaded Config preloaded in background, {@code null} to load it via AutoConfig
+     */
+    private static void finish(BSerializer created, Gson gson, @Nullable BConfig preloaded) {
+        // Log. (**DEBUG**)
+        LOGGER.debug("BSCFSIO: Registering config... (preloaded: {})", preloaded);
+        BConfigEvent event = new BConfigEvent();
+        event.begin();
+
+        // Register the config.
+        if (preloaded != null) {
+            created.preload(preloaded);
+        }
+        AutoConfig.register(BConfig.class, (definition, configClass) -> created);
+        ConfigHolder<BConfig> holder = AutoConfig.getConfigHolder(BConfig.class);
+        holder.registerLoadListener((h, config) -> {
+            BConfigEvent loadEvent = new BConfigEvent();
+            loadEvent.begin();
+            config.validatePostLoad();
+            publish(config);
+            if (loadEvent.shouldCommit()) {
+                loadEvent.action = "load";
+                loadEvent.commit();
+            }
             return InteractionResult.SUCCESS;
         });
-        AutoConfig.getConfigHolder(BConfig.class).registerSaveListener((holder, config) -> {
+        holder.registerSaveListener((h, config) -> {
             config.validatePostLoad();
+            publish(config);
             return InteractionResult.SUCCESS;
         });
 
+        // Publish the initially loaded config. (validated by AutoConfig)
+        publish(holder.getConfig());
+
+        // Watch the config file for changes.
+        BWatcher.start(created, gson);
+        serializer = created;
+
         // Log. (**DEBUG**)
+        if (event.shouldCommit()) {
+            event.action = "load";
+            event.commit();
+        }
         LOGGER.debug("BSCFSIO: Config loaded.");
     }
 
+    /**
+     * Gets the preload timings.
+     *
+     * @return Nanoseconds spent reading, parsing, and validating the config in background, {@code null} if not preloaded
+     */
+    @Contract(pure = true)
+    static long @Nullable [] timings() {
+        return timings;
+    }
+
     /**
      * Gets the enabled.
      *
@@ -217,14 +567,58 @@ public final class BConfig implements ConfigData {
     }
 
     /**
-     * Gets whether the stack should be prohibited from moving.
+     * Gets the lock indicator.
      *
-     * @param stack Stack to check
-     * @return Whether the stack is not {@code null}, not empty, and should be prohibited from moving
+     * @return Whether to always mark the protected slots with the visual overlay color, {@code false} by default
      */
     @Contract(pure = true)
-    public boolean isMovingProhibited(@Nullable ItemStack stack) {
-        return ((stack != null) && !stack.isEmpty() && this.itemSet.contains(stack.getItem()));
+    public boolean lockIndicator() {
+        return this.lockIndicator;
+    }
+
+    /**
+     * Gets the items.
+     *
+     * @return Unmodifiable view of the item IDs and tags to prohibit moving, {@code ["totem_of_undying"]} by default
+     */
+    @Contract(pure = true)
+    public List<@Nullable String> items() {
+        return Collections.unmodifiableList(this.items);
+    }
+
+    /**
+     * Compiles and publishes the config snapshot. The config should be validated via {@link #validatePostLoad()}.
+     *
+     * @param config Config to publish
+     * @see #snapshot()
+     */
+    private static void publish(BConfig config) {
+        // Compile.
+        BSnapshot compiled = compile(config);
+
+        // Log. (**DEBUG**)
+        LOGGER.debug("BSCFSIO: Publishing config snapshot... (snapshot: {}, config: {})", compiled, config);
+
+        // Publish.
+        snapshot = compiled;
+
+        // Warn once if the overlays are enabled, but their hooks have been left out at startup.
+        if (BMixinPlugin.OVERLAY || overlayWarned || ((compiled.visual() <= 0L) && !compiled.lockIndicator())) return;
+        overlayWarned = true;
+        LOGGER.warn("BSCFSIO: Visual overlay or lock indicator has been enabled, but the overlays were disabled at startup. Restart the game to show them. (visual: {}, lockIndicator: {})", compiled.visual(), compiled.lockIndicator());
+    }
+
+    /**
+     * Compiles the config snapshot. The config should be validated via {@link #validatePostLoad()}.
+     *
+     * @param config Config to compile
+     * @return Compiled snapshot
+     */
+    @CheckReturnValue
+    static BSnapshot compile(BConfig config) {
+        // Compile.
+        BPolicy[] policies = BPolicy.compile(config.quickMove, config.swap, config.throwing, config.pickupAll, config.quickCraft);
+        return new BSnapshot(config.enabled, policies, config.sound, config.soundWindow, config.soundRate, config.visual, config.visualColor, config.lockIndicator, config.statsHud, BProfiles.matcher(config.profileItems, config.matcher), config.ruleSet);
     }
 
     @Contract(pure = true)
@@ -232,14 +626,126 @@ public final class BConfig implements ConfigData {
     public String toString() {
         return "BSCFSIO/BConfig{" +
                 "enabled=" + this.enabled +
+                ", quickMove=" + this.quickMove +
+                ", swap=" + this.swap +
+                ", throwing=" + this.throwing +
+                ", pickupAll=" + this.pickupAll +
+                ", quickCraft=" + this.quickCraft +
                 ", sound=" + this.sound +
+                ", soundWindow=" + this.soundWindow +
+                ", soundRate=" + this.soundRate +
                 ", visual=" + this.visual +
                 ", visualColor=" + this.visualColor +
+                ", lockIndicator=" + this.lockIndicator +
+                ", statsHud=" + this.statsHud +
                 ", items=" + this.items +
-                ", itemSet=" + this.itemSet +
+                ", matcher=" + this.matcher +
+                ", rules=" + this.rules +
+                ", ruleSet=" + this.ruleSet +
+                ", profiles=" + this.profiles +
+                ", profileItems=" + this.profileItems +
                 '}';
     }
 
+    /**
+     * Installs the externally changed config. The config is validated and compiled, the config holder is updated,
+     * and the snapshot is published in one step on the client thread, so the compilation reads the item registry
+     * and the tags consistently and the client thread changes (e.g. {@link #toggle()}) can't overwrite it.
+     *
+     * @param config   Parsed config to install
+     * @param executor Client thread executor
+     */
+    static void install(BConfig config, Executor executor) {
+        executor.execute(() -> {
+            config.validatePostLoad();
+            AutoConfig.getConfigHolder(BConfig.class).setConfig(config);
+            publish(config);
+        });
+    }
+
+    /**
+     * Recompiles and republishes the current config. Does nothing if the config is not loaded.
+     */
+    private static void recompile() {
+        // Skip if not loaded.
+        if (serializer == null) return;
+
+        // Log. (**DEBUG**)
+        LOGGER.debug("BSCFSIO: Recompiling config...");
+
+        // Recompile and publish.
+        generation++;
+        BConfig config = get();
+        config.validatePostLoad();
+        publish(config);
+    }
+
+    /**
+     * Re-expands the item tags whose contents have changed since the last sync. Only the matchers referencing
+     * the changed tags are recompiled, the tags are synced on every join and usually don't change.
+     * Does nothing if the config is not loaded. Must be called only from the client thread.
+     */
+    private static void retag() {
+        // Skip if not loaded.
+        if (serializer == null) return;
+
+        // Collect the current contents of all referenced tags.
+        BConfig config = get();
+        Map<String, List<Item>> contents = new HashMap<>();
+        BMatcher.tags(config.items, contents);
+        for (List<String> items : config.profileItems.values()) {
+            BMatcher.tags(items, contents);
+        }
+
+        // Find the changed tags. Skip if none.
+        Map<String, List<Item>> previous = tagContents;
+        tagContents = contents;
+        Set<String> changed = new HashSet<>();
+        for (Map.Entry<String, List<Item>> entry : contents.entrySet()) {
+            if (entry.getValue().equals(previous.get(entry.getKey()))) continue;
+            changed.add(entry.getKey());
+        }
+        if (changed.isEmpty()) {
+            // Log. (**DEBUG**)
+            LOGGER.debug("BSCFSIO: Synced tags haven't changed. (tags: {})", contents.size());
+            return;
+        }
+
+        // Log. (**DEBUG**)
+        LOGGER.debug("BSCFSIO: Re-expanding changed tags... (changed: {})", changed);
+
+        // Recompile the affected matchers only.
+        if (config.items.stream().anyMatch(changed::contains)) {
+            config.matcher = BMatcher.compile(config.items);
+        }
+        BProfiles.invalidate(config.profileItems, items -> items.stream().anyMatch(changed::contains));
+        publish(config);
+    }
+
+    /**
+     * Republishes the current config, e.g. after selecting the other profile. Does nothing if the config is not loaded.
+     *
+     * @see BProfiles#select(String)
+     */
+    static void republish() {
+        // Skip if not loaded.
+        if (serializer == null) return;
+
+        // Publish.
+        publish(get());
+    }
+
+    /**
+     * Gets the current compiled config snapshot. This is a single volatile read and should be used by the hot paths.
+     *
+     * @return Current config snapshot, {@link BSnapshot#DISABLED} if the config is not loaded via {@link #init()}
+     * @see #get()
+     */
+    @Contract(pure = true)
+    public static BSnapshot snapshot() {
+        return snapshot;
+    }
+
     /**
      * Gets the current config. The instance is ephemeral, it might change in the future.
      * The config <b>MUST</b> be loaded.
@@ -247,11 +753,13 @@ public final class BConfig implements ConfigData {
      * @return Current config instance
      * @throws RuntimeException If the config is not loaded via {@link #init()}
      * @see #init()
+     * @see #snapshot()
      * @see #createScreen(Screen)
      * @see #toggle()
      */
     @Contract(pure = true)
     public static BConfig get() {
+        await();
         return AutoConfig.getConfigHolder(BConfig.class).getConfig();
     }
 
@@ -267,11 +775,116 @@ public final class BConfig implements ConfigData {
      */
     @CheckReturnValue
     static Screen createScreen(@Nullable Screen parent) {
-        return AutoConfig.getConfigScreen(BConfig.class, parent).get();
+        await();
+        Screen screen = AutoConfig.getConfigScreen(BConfig.class, parent).get();
+        BPickerScreen.attach(screen);
+        return screen;
+    }
+
+    /**
+     * Protects or unprotects the single item in the active item list: the profile of the current server, if any,
+     * otherwise the global {@link #items()}. The compiled matcher is updated and published immediately,
+     * the config is saved lazily in background. Must be called only from the client thread.
+     * The config <b>MUST</b> be loaded.
+     *
+     * @param item    Item to protect or unprotect
+     * @param protect Whether to protect the item, {@code false} to unprotect
+     * @return Whether the items have been changed, {@code false} if already (un)protected or matched only by a tag or a pattern
+     * @throws RuntimeException If the config is not loaded via {@link #init()}
+     * @see #init()
+     * @see #items()
+     * @see #profile()
+     */
+    static boolean protect(Item item, boolean protect) {
+        // Log. (**DEBUG**)
+        LOGGER.debug("BSCFSIO: Changing item protection... (item: {}, protect: {})", item, protect);
+
+        // Get the config.
+        await();
+        BConfig config = AutoConfig.getConfigHolder(BConfig.class).getConfig();
+        ResourceLocation key = BuiltInRegistries.ITEM.getKey(item);
+        int raw = BuiltInRegistries.ITEM.getId(item);
+        Predicate<@Nullable String> entry = e -> (e != null) && !e.startsWith("#") && !BMatcher.isPattern(e) && key.equals(ResourceLocation.tryParse(e.strip()));
+
+        // Update the active profile, if any.
+        String address = BProfiles.active(config.profileItems);
+        if (address != null) {
+            // Update the profile items and its matcher. Skip if already (un)protected.
+            List<String> items = new ArrayList<>(config.profileItems.get(address));
+            BMatcher matcher = BProfiles.matcher(config.profileItems, config.matcher);
+            if (protect) {
+                if (matcher.contains(raw)) return false;
+                items.add(key.toString());
+                matcher = matcher.with(raw);
+            } else {
+                // Remove the item entries. Skip if none.
+                if (!items.removeIf(entry)) return false;
+
+                // Recompile fully if the item might still be matched by a tag or a pattern.
+                boolean patterns = items.stream().anyMatch(e -> e.startsWith("#") || BMatcher.isPattern(e));
+                matcher = (patterns ? BMatcher.compile(items) : matcher.without(raw));
+            }
+
+            // Replace the profile string and its parsed entry only.
+            for (int i = 0, size = config.profiles.size(); i < size; i++) {
+                String profile = config.profiles.get(i);
+                if ((profile == null) || !address.equals(BProfiles.address(profile))) continue;
+                config.profiles.set(i, profile.substring(0, profile.indexOf('=')).strip() + " = " + String.join(" ", items));
+                break;
+            }
+            Map<String, List<String>> profileItems = new HashMap<>(config.profileItems);
+            profileItems.put(address, List.copyOf(items));
+            config.profileItems = Collections.unmodifiableMap(profileItems);
+            BProfiles.update(address, matcher);
+        } else if (protect) {
+            // Skip if already protected.
+            if (config.matcher.contains(raw)) return false;
+            config.items.add(key.toString());
+            config.matcher = config.matcher.with(raw);
+        } else {
+            // Remove the item entries. Skip if none.
+            if (!config.items.removeIf(entry)) return false;
+
+            // Recompile fully if the item might still be matched by a tag or a pattern.
+            boolean patterns = config.items.stream().anyMatch(e -> (e != null) && (e.startsWith("#") || BMatcher.isPattern(e)));
+            config.matcher = (patterns ? BMatcher.compile(config.items) : config.matcher.without(raw));
+        }
+        config.compiledFrom = null;
+
+        // Publish and save. (in background)
+        publish(config);
+        BSerializer current = serializer;
+        if (current != null) {
+            current.serialize(config);
+        }
+        return true;
+    }
+
+    /**
+     * Gets the active profile. The config <b>MUST</b> be loaded.
+     *
+     * @return Normalized address of the current server profile edited by {@link #protect(Item, boolean)}, {@code null} if the global items are used
+     * @throws RuntimeException If the config is not loaded via {@link #init()}
+     */
+    @Nullable
+    static String profile() {
+        return BProfiles.active(get().profileItems);
+    }
+
+    /**
+     * Writes the pending config changes, if any, on the current thread. Does nothing if the config is not loaded.
+     */
+    static void flush() {
+        // Skip if not loaded.
+        BSerializer current = serializer;
+        if (current == null) return;
+
+        // Flush.
+        current.flush();
     }
 
     /**
-     * Toggles the {@link #enabled()} state and saves the config. The config <b>MUST</b> be loaded.
+     * Toggles the {@link #enabled()} state and saves the config in background. The config <b>MUST</b> be loaded.
      *
      * @throws RuntimeException If the config is not loaded via {@link #init()}
      * @return New {@link #enabled()} state
@@ -282,19 +895,26 @@ public final class BConfig implements ConfigData {
     static boolean toggle() {
         // Log. (**DEBUG**)
         LOGGER.debug("BSCFSIO: Toggling via keybind...");
+        BConfigEvent event = new BConfigEvent();
+        event.begin();
 
         // Get the config.
+        await();
         ConfigHolder<BConfig> holder = AutoConfig.getConfigHolder(BConfig.class);
         BConfig config = holder.getConfig();
 
         // Toggle the state.
         boolean newState = (config.enabled = !config.enabled);
 
-        // Save the config.
+        // Save the config. (in background)
         holder.setConfig(config); // Redundant, actually.
         holder.save();
 
         // Log. (**DEBUG**)
+        if (event.shouldCommit()) {
+            event.action = "toggle";
+            event.commit();
+        }
         LOGGER.debug("BSCFSIO: Toggled to {} via keybind.", newState);
 
         // Return the state.
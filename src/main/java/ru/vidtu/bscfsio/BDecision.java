@@ -0,0 +1,103 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024-2025 VidTu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.vidtu.bscfsio;
+
+import net.minecraft.world.inventory.ClickType;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Contract;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Pure click decision core. Takes only primitive inputs and the config snapshot, never allocates,
+ * logs, or touches the game state. Mixins are thin adapters that gather the inputs and act on the verdict.
+ *
+ * @author VidTu
+ */
+@ApiStatus.Internal
+@NullMarked
+public final class BDecision {
+    /**
+     * Verdict: the click is allowed.
+     */
+    public static final int PASS = 0;
+
+    /**
+     * Verdict: the click should be blocked.
+     */
+    public static final int BLOCK = 1;
+
+    /**
+     * Verdict: the item has stack rules, the stack should be tested via {@link BRules#test(net.minecraft.world.item.ItemStack, int)}.
+     */
+    public static final int INSPECT = 2;
+
+    /**
+     * An instance of this class cannot be created.
+     *
+     * @throws AssertionError Always
+     * @deprecated Always throws
+     */
+    @Deprecated(forRemoval = true)
+    @Contract(value = "-> fail", pure = true)
+    private BDecision() {
+        throw new AssertionError("No instances.");
+    }
+
+    /**
+     * Gets the effective click policy.
+     *
+     * @param snapshot Config snapshot
+     * @param click    Click type {@link ClickType#ordinal()}
+     * @return Click policy, {@link BPolicy#IGNORE} if the mod is disabled
+     */
+    @Contract(pure = true)
+    public static BPolicy policy(BSnapshot snapshot, int click) {
+        return (snapshot.enabled() ? snapshot.policy(click) : BPolicy.IGNORE);
+    }
+
+    /**
+     * Decides the verdict for one stack affected by the click.
+     *
+     * @param snapshot Config snapshot
+     * @param click    Click type {@link ClickType#ordinal()}
+     * @param slot     Clicked slot index
+     * @param slots    Number of the slots in the menu
+     * @param item     Item registry raw ID of the affected stack, negative if the stack is empty
+     * @return {@link #PASS}, {@link #BLOCK}, or {@link #INSPECT}
+     */
+    @Contract(pure = true)
+    public static int decide(BSnapshot snapshot, int click, int slot, int slots, int item) {
+        // Pass if the click type is not handled or the stack is empty.
+        BPolicy policy = policy(snapshot, click);
+        if ((policy == BPolicy.IGNORE) || (item < 0)) return PASS;
+
+        // Pass if the click is out of bounds. (drag gestures start and end out of bounds)
+        if ((policy != BPolicy.DRAG) && ((slot < 0) || (slot >= slots))) return PASS;
+
+        // Check the items, then the rules.
+        if (snapshot.items().contains(item)) return BLOCK;
+        return (snapshot.rules().candidate(item) ? INSPECT : PASS);
+    }
+}
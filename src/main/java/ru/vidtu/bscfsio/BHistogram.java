@@ -0,0 +1,147 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024-2025 VidTu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.vidtu.bscfsio;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Contract;
+import org.jspecify.annotations.NullMarked;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free fixed-bucket latency histogram. Bucket {@code i} counts the samples in {@code [2^(i-1), 2^i)} nanoseconds,
+ * so recording is a leading zeros count and a striped counter increment without any allocation.
+ *
+ * @author VidTu
+ */
+@ApiStatus.Internal
+@NullMarked
+final class BHistogram {
+    /**
+     * Number of the buckets, the last one counts everything above {@code 2^(BUCKETS-2)} nanoseconds. (about a second)
+     */
+    private static final int BUCKETS = 32;
+
+    /**
+     * Sample counts per bucket.
+     */
+    private final LongAdder[] buckets;
+
+    /**
+     * Maximum recorded sample in nanoseconds.
+     */
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+    /**
+     * Creates a new histogram.
+     */
+    @Contract(pure = true)
+    BHistogram() {
+        this.buckets = new LongAdder[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            this.buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records the sample.
+     *
+     * @param nanos Sample in nanoseconds, negative values are treated as zero
+     */
+    void record(long nanos) {
+        long sample = Math.max(0L, nanos);
+        this.buckets[Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(sample))].increment();
+        this.max.accumulate(sample);
+    }
+
+    /**
+     * Gets the count.
+     *
+     * @return Number of the recorded samples
+     */
+    long count() {
+        long count = 0L;
+        for (LongAdder bucket : this.buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    /**
+     * Estimates the percentile as the upper bound of its bucket.
+     *
+     * @param percentile Percentile to estimate, from {@code 0.0} to {@code 1.0}
+     * @return Percentile upper bound in nanoseconds, {@code 0} if no samples
+     */
+    long percentile(double percentile) {
+        // Take the counts.
+        long[] counts = new long[BUCKETS];
+        long total = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = this.buckets[i].sum();
+            total += counts[i];
+        }
+        if (total == 0L) return 0L;
+
+        // Find the bucket.
+        long rank = (long) Math.ceil(total * percentile);
+        long seen = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen < rank) continue;
+            return Math.min(this.max.get(), (i == 0) ? 0L : (1L << i) - 1L);
+        }
+        return this.max.get();
+    }
+
+    /**
+     * Gets the max.
+     *
+     * @return Maximum recorded sample in nanoseconds
+     */
+    long max() {
+        return this.max.get();
+    }
+
+    /**
+     * Resets the histogram. Samples recorded concurrently might be lost.
+     */
+    void reset() {
+        for (LongAdder bucket : this.buckets) {
+            bucket.reset();
+        }
+        this.max.reset();
+    }
+
+    @Contract(pure = true)
+    @Override
+    public String toString() {
+        return "BSCFSIO/BHistogram{" +
+                "count=" + this.count() +
+                ", max=" + this.max.get() +
+                '}';
+    }
+}
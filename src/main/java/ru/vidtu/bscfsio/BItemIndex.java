@@ -0,0 +1,214 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024-2025 VidTu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.vidtu.bscfsio;
+
+import net.minecraft.Util;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.locale.Language;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.Items;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.CheckReturnValue;
+import org.jetbrains.annotations.Contract;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Immutable prefix index over the item IDs and display names. Every ID, ID path, display name, and each word
+ * of them is a sorted key, so a query is a binary search and a scan over the matching keys only.
+ * Built in background on the first {@link #get()} and rebuilt when the language changes.
+ *
+ * @author VidTu
+ */
+@ApiStatus.Internal
+@NullMarked
+final class BItemIndex {
+    /**
+     * Logger for this class.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger("BSCFSIO/BItemIndex");
+
+    /**
+     * Index being built or built for {@link #language}, {@code null} if none. Accessed only from the client thread.
+     */
+    @Nullable
+    private static CompletableFuture<BItemIndex> current;
+
+    /**
+     * Language the {@link #current} index is built for, {@code null} if none. Accessed only from the client thread.
+     */
+    @Nullable
+    private static Language language;
+
+    /**
+     * Sorted lowercase keys.
+     */
+    private final String[] keys;
+
+    /**
+     * Item raw IDs of the keys, parallel to {@link #keys}.
+     */
+    private final int[] items;
+
+    /**
+     * Creates a new index.
+     *
+     * @param keys  Sorted lowercase keys, not copied
+     * @param items Item raw IDs of the keys, not copied
+     */
+    @Contract(pure = true)
+    private BItemIndex(String[] keys, int[] items) {
+        this.keys = keys;
+        this.items = items;
+    }
+
+    /**
+     * Finds the items with any key starting with the query, in the key order.
+     *
+     * @param query Query to search, case-insensitive, empty to match all items
+     * @param limit Maximum number of the items to find
+     * @return A new list of the found items without duplicates
+     */
+    @CheckReturnValue
+    List<Item> find(String query, int limit) {
+        // Find the first key.
+        String prefix = query.strip().toLowerCase(Locale.ROOT);
+        int index = Arrays.binarySearch(this.keys, prefix);
+        if (index < 0) {
+            index = -(index + 1);
+        }
+
+        // Collect the items until the keys stop matching.
+        List<Item> found = new ArrayList<>(Math.min(limit, 64));
+        BitSet seen = new BitSet();
+        for (int length = this.keys.length; (index < length) && (found.size() < limit) && this.keys[index].startsWith(prefix); index++) {
+            int item = this.items[index];
+            if (seen.get(item)) continue;
+            seen.set(item);
+            found.add(BuiltInRegistries.ITEM.byId(item));
+        }
+        return found;
+    }
+
+    @Contract(pure = true)
+    @Override
+    public String toString() {
+        return "BSCFSIO/BItemIndex{" +
+                "keys=" + this.keys.length +
+                '}';
+    }
+
+    /**
+     * Gets the index for the current language, starting to build it in background if needed. Must be called only from the client thread.
+     *
+     * @return Index future
+     */
+    static CompletableFuture<BItemIndex> get() {
+        // Reuse the index for the same language.
+        Language lang = Language.getInstance();
+        CompletableFuture<BItemIndex> future = current;
+        if ((future != null) && (language == lang)) return future;
+
+        // Build in background.
+        future = CompletableFuture.supplyAsync(BItemIndex::build, Util.backgroundExecutor());
+        current = future;
+        language = lang;
+        return future;
+    }
+
+    /**
+     * Builds the index against the current item registry and language.
+     *
+     * @return Built index
+     */
+    @CheckReturnValue
+    private static BItemIndex build() {
+        // Log. (**DEBUG**)
+        long start = System.nanoTime();
+        LOGGER.debug("BSCFSIO: Building item index...");
+
+        // Collect the keys.
+        List<String> keys = new ArrayList<>();
+        List<Integer> ids = new ArrayList<>();
+        for (Item item : BuiltInRegistries.ITEM) {
+            // Skip air.
+            if (item == Items.AIR) continue;
+            int raw = BuiltInRegistries.ITEM.getId(item);
+            ResourceLocation id = BuiltInRegistries.ITEM.getKey(item);
+            String name = item.getDescription().getString().toLowerCase(Locale.ROOT);
+
+            // Add the full ID, the path, the name, and their words.
+            add(keys, ids, id.toString(), raw);
+            add(keys, ids, id.getPath(), raw);
+            add(keys, ids, name, raw);
+            for (String word : id.getPath().split("_")) {
+                add(keys, ids, word, raw);
+            }
+            for (String word : name.split("\\s+")) {
+                add(keys, ids, word, raw);
+            }
+        }
+
+        // Sort.
+        Integer[] order = new Integer[keys.size()];
+        Arrays.setAll(order, i -> i);
+        Arrays.sort(order, (a, b) -> keys.get(a).compareTo(keys.get(b)));
+        String[] sortedKeys = new String[order.length];
+        int[] sortedItems = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            sortedKeys[i] = keys.get(order[i]);
+            sortedItems[i] = ids.get(order[i]);
+        }
+        BItemIndex index = new BItemIndex(sortedKeys, sortedItems);
+
+        // Log. (**DEBUG**)
+        LOGGER.debug("BSCFSIO: Item index built. (index: {}, time: {} ms)", index, (System.nanoTime() - start) / 1_000_000L);
+        return index;
+    }
+
+    /**
+     * Adds the key, if not empty.
+     *
+     * @param keys Keys to add to
+     * @param ids  Item raw IDs to add to
+     * @param key  Key to add
+     * @param item Item raw ID
+     */
+    private static void add(List<String> keys, List<Integer> ids, String key, int item) {
+        if (key.isEmpty()) return;
+        keys.add(key);
+        ids.add(item);
+    }
+}
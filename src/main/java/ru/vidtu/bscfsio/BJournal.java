@@ -0,0 +1,270 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024-2025 VidTu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.vidtu.bscfsio;
+
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.Util;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.world.inventory.ClickType;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Contract;
+import org.jspecify.annotations.NullMarked;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fixed-size preallocated in-memory ring buffer of primitive click and overlay records. Written from the client
+ * thread without allocating or locking, dumped to a file in background via {@link #dump(boolean)}.
+ * Replaces the TRACE/DEBUG logging in the hot paths, so the diagnostics can be always on.
+ *
+ * @author VidTu
+ */
+@ApiStatus.Internal
+@NullMarked
+public final class BJournal {
+    /**
+     * Logger for this class.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger("BSCFSIO/BJournal");
+
+    /**
+     * Record kind: inventory click.
+     */
+    private static final byte CLICK = 0;
+
+    /**
+     * Record kind: shown slot overlay.
+     */
+    private static final byte OVERLAY = 1;
+
+    /**
+     * Journal capacity, must be a power of two.
+     */
+    private static final int CAPACITY = 4096;
+
+    /**
+     * Record times. (in units of {@link System#nanoTime()})
+     */
+    private static final long[] TIMES = new long[CAPACITY];
+
+    /**
+     * Record kinds.
+     */
+    private static final byte[] KINDS = new byte[CAPACITY];
+
+    /**
+     * Record container IDs.
+     */
+    private static final int[] CONTAINERS = new int[CAPACITY];
+
+    /**
+     * Record slot indexes.
+     */
+    private static final int[] SLOTS = new int[CAPACITY];
+
+    /**
+     * Record button IDs, {@code 0} for overlay records.
+     */
+    private static final int[] BUTTONS = new int[CAPACITY];
+
+    /**
+     * Record click types {@link ClickType#ordinal()}, {@code 0} for overlay records.
+     */
+    private static final byte[] CLICKS = new byte[CAPACITY];
+
+    /**
+     * Record item registry raw IDs, {@code -1} if none.
+     */
+    private static final int[] ITEMS = new int[CAPACITY];
+
+    /**
+     * Record verdicts, {@link BDecision#PASS} or {@link BDecision#BLOCK}.
+     */
+    private static final byte[] VERDICTS = new byte[CAPACITY];
+
+    /**
+     * Number of the records ever written. Written only by the client thread.
+     */
+    private static final AtomicLong WRITTEN = new AtomicLong();
+
+    /**
+     * Dump file name time formatter.
+     */
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH.mm.ss");
+
+    /**
+     * An instance of this class cannot be created.
+     *
+     * @throws AssertionError Always
+     * @deprecated Always throws
+     */
+    @Deprecated(forRemoval = true)
+    @Contract(value = "-> fail", pure = true)
+    private BJournal() {
+        throw new AssertionError("No instances.");
+    }
+
+    /**
+     * Records the handled click. Must be called only from the client thread.
+     *
+     * @param container Container ID
+     * @param slot      Clicked slot index
+     * @param button    Button ID
+     * @param click     Click type {@link ClickType#ordinal()}
+     * @param item      Item registry raw ID of the clicked slot, {@code -1} if none
+     * @param verdict   Click verdict, {@link BDecision#PASS} or {@link BDecision#BLOCK}
+     */
+    public static void click(int container, int slot, int button, int click, int item, int verdict) {
+        write(CLICK, container, slot, button, click, item, verdict);
+    }
+
+    /**
+     * Records the shown overlay. Must be called only from the client thread.
+     *
+     * @param container Container ID
+     * @param slot      Slot index
+     */
+    public static void overlay(int container, int slot) {
+        write(OVERLAY, container, slot, 0, 0, -1, BDecision.BLOCK);
+    }
+
+    /**
+     * Writes the record.
+     *
+     * @param kind      Record kind
+     * @param container Container ID
+     * @param slot      Slot index
+     * @param button    Button ID
+     * @param click     Click type {@link ClickType#ordinal()}
+     * @param item      Item registry raw ID, {@code -1} if none
+     * @param verdict   Verdict
+     */
+    private static void write(byte kind, int container, int slot, int button, int click, int item, int verdict) {
+        long written = WRITTEN.get();
+        int index = (int) (written & (CAPACITY - 1));
+        TIMES[index] = System.nanoTime();
+        KINDS[index] = kind;
+        CONTAINERS[index] = container;
+        SLOTS[index] = slot;
+        BUTTONS[index] = button;
+        CLICKS[index] = (byte) click;
+        ITEMS[index] = item;
+        VERDICTS[index] = (byte) verdict;
+        WRITTEN.lazySet(written + 1L);
+    }
+
+    /**
+     * Dumps the journal to a new file in the {@code logs} folder. Must be called only from the client thread.
+     * The records are copied on the calling thread, formatting and writing is done in background unless {@code sync}.
+     *
+     * @param sync Whether to write the file on the calling thread, e.g. on shutdown
+     * @return Dump file path
+     */
+    public static Path dump(boolean sync) {
+        // Copy the records.
+        long written = WRITTEN.get();
+        int count = (int) Math.min(written, CAPACITY);
+        long[] times = new long[count];
+        byte[] kinds = new byte[count];
+        int[] containers = new int[count];
+        int[] slots = new int[count];
+        int[] buttons = new int[count];
+        byte[] clicks = new byte[count];
+        int[] items = new int[count];
+        byte[] verdicts = new byte[count];
+        for (int i = 0; i < count; i++) {
+            int index = (int) ((written - count + i) & (CAPACITY - 1));
+            times[i] = TIMES[index];
+            kinds[i] = KINDS[index];
+            containers[i] = CONTAINERS[index];
+            slots[i] = SLOTS[index];
+            buttons[i] = BUTTONS[index];
+            clicks[i] = CLICKS[index];
+            items[i] = ITEMS[index];
+            verdicts[i] = VERDICTS[index];
+        }
+
+        // Format and write.
+        long played = BSound.played();
+        long suppressed = BSound.suppressed();
+        long now = System.nanoTime();
+        Path path = FabricLoader.getInstance().getGameDir().resolve("logs").resolve("bscfsio-journal-" + LocalDateTime.now().format(FORMATTER) + ".log");
+        Runnable task = () -> {
+            // Log. (**DEBUG**)
+            LOGGER.debug("BSCFSIO: Dumping journal... (path: {}, count: {}, written: {})", path, count, written);
+
+            try {
+                Files.createDirectories(path.getParent());
+                try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                    ClickType[] types = ClickType.values();
+                    writer.write("# BSCFSIO journal, " + count + " of " + written + " records, times are milliseconds before the dump");
+                    writer.newLine();
+                    writer.write("# Sounds: " + played + " played, " + suppressed + " suppressed");
+                    writer.newLine();
+                    for (int i = 0; i < count; i++) {
+                        writer.write(String.format("-%.3f %s container=%d slot=%d", (now - times[i]) / 1_000_000.0D, (kinds[i] == CLICK) ? "CLICK" : "OVERLAY", containers[i], slots[i]));
+                        if (kinds[i] == CLICK) {
+                            int click = clicks[i];
+                            int item = items[i];
+                            writer.write(" button=" + buttons[i] + " click=" + (((click >= 0) && (click < types.length)) ? types[click].name() : click) +
+                                    " item=" + ((item >= 0) ? BuiltInRegistries.ITEM.getKey(BuiltInRegistries.ITEM.byId(item)) : "empty") + " verdict=" + ((verdicts[i] == BDecision.BLOCK) ? "BLOCK" : "PASS"));
+                        }
+                        writer.newLine();
+                    }
+                }
+
+                // Log.
+                LOGGER.info("BSCFSIO: Journal dumped to {}. ({} records)", path, count);
+            } catch (Throwable t) {
+                // Log.
+                LOGGER.error("BSCFSIO: Unable to dump journal. (path: {}, count: {}, written: {})", path, count, written, t);
+            }
+        };
+        if (sync) {
+            task.run();
+        } else {
+            Util.ioPool().execute(task);
+        }
+        return path;
+    }
+
+    /**
+     * Gets whether the journal has any records.
+     *
+     * @return Whether any record has been ever written
+     */
+    @Contract(pure = true)
+    public static boolean isEmpty() {
+        return (WRITTEN.get() == 0L);
+    }
+}
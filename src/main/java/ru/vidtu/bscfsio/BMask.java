@@ -0,0 +1,181 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024-2025 VidTu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.vidtu.bscfsio;
+
+import net.minecraft.world.inventory.AbstractContainerMenu;
+import net.minecraft.world.inventory.Slot;
+import net.minecraft.world.item.ItemStack;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Contract;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Protected-slot bitmask of the current container menu. Built once when the menu contents arrive and updated
+ * only for the slots the server changes. Each slot also remembers the stack instance, count, and {@link BTagVersion}
+ * it was computed for, so changes made by other paths (e.g. the client-side click prediction
+ * or in-place tag edits) are caught on the next check.
+ * Rebuilt if the menu or the {@link BConfig#snapshot()} changes. Must be accessed only from the client thread.
+ *
+ * @author VidTu
+ */
+@ApiStatus.Internal
+@NullMarked
+public final class BMask {
+    /**
+     * Menu the mask is built for, {@code null} if none.
+     */
+    @Nullable
+    private static AbstractContainerMenu menu;
+
+    /**
+     * Snapshot the mask is built with.
+     */
+    private static BSnapshot snapshot = BSnapshot.DISABLED;
+
+    /**
+     * Protected slot bits.
+     */
+    private static long[] bits = new long[0];
+
+    /**
+     * Stacks the bits are computed for, {@code null} elements if none.
+     */
+    private static @Nullable ItemStack[] stacks = new ItemStack[0];
+
+    /**
+     * Counts of the stacks the bits are computed for.
+     */
+    private static int[] counts = new int[0];
+
+    /**
+     * Tag versions of the stacks the bits are computed for.
+     */
+    private static int[] versions = new int[0];
+
+    /**
+     * An instance of this class cannot be created.
+     *
+     * @throws AssertionError Always
+     * @deprecated Always throws
+     */
+    @Deprecated(forRemoval = true)
+    @Contract(value = "-> fail", pure = true)
+    private BMask() {
+        throw new AssertionError("No instances.");
+    }
+
+    /**
+     * Rebuilds the mask for the menu.
+     *
+     * @param target Menu to build the mask for
+     */
+    public static void rebuild(AbstractContainerMenu target) {
+        // Reset the mask.
+        List<Slot> slots = target.slots;
+        int size = slots.size();
+        menu = target;
+        snapshot = BConfig.snapshot();
+        if (stacks.length < size) {
+            bits = new long[(size + 63) >>> 6];
+            stacks = new ItemStack[size];
+            counts = new int[size];
+            versions = new int[size];
+        } else {
+            Arrays.fill(bits, 0L);
+        }
+
+        // Compute all slots.
+        for (int i = 0; i < size; i++) {
+            compute(i, slots.get(i).getItem());
+        }
+    }
+
+    /**
+     * Updates the slot in the mask, if the mask is built for the menu.
+     *
+     * @param target Menu with the changed slot
+     * @param slot   Changed slot index
+     */
+    public static void update(AbstractContainerMenu target, int slot) {
+        // Skip if for the other menu or out of bounds.
+        if ((target != menu) || (slot < 0) || (slot >= target.slots.size()) || (slot >= stacks.length)) return;
+
+        // Compute the slot.
+        compute(slot, target.slots.get(slot).getItem());
+    }
+
+    /**
+     * Gets whether the slot is protected, updating the mask if needed.
+     *
+     * @param target Menu to check
+     * @param slot   Slot index, must be within the menu bounds
+     * @return Whether the slot's stack should be prohibited from moving
+     */
+    public static boolean isProtected(AbstractContainerMenu target, int slot) {
+        // Rebuild for the other menu or snapshot.
+        if ((target != menu) || (snapshot != BConfig.snapshot()) || (target.slots.size() > stacks.length)) {
+            rebuild(target);
+        }
+
+        // Recompute if the stack has been changed by the other path.
+        ItemStack stack = target.slots.get(slot).getItem();
+        if ((stacks[slot] != stack) || (counts[slot] != stack.getCount()) || (versions[slot] != BTagVersion.of(stack))) {
+            compute(slot, stack);
+        }
+
+        // Test the bit.
+        return ((bits[slot >>> 6] & (1L << slot)) != 0L);
+    }
+
+    /**
+     * Clears the mask.
+     */
+    public static void clear() {
+        menu = null;
+        Arrays.fill(stacks, null);
+    }
+
+    /**
+     * Computes the slot bit.
+     *
+     * @param slot  Slot index
+     * @param stack Slot stack
+     */
+    private static void compute(int slot, ItemStack stack) {
+        stacks[slot] = stack;
+        counts[slot] = stack.getCount();
+        versions[slot] = BTagVersion.of(stack);
+        long bit = (1L << slot);
+        if (snapshot.isMovingProhibited(stack)) {
+            bits[slot >>> 6] |= bit;
+        } else {
+            bits[slot >>> 6] &= ~bit;
+        }
+    }
+}
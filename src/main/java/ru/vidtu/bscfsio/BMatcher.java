@@ -0,0 +1,328 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024-2025 VidTu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.vidtu.bscfsio;
+
+import net.minecraft.core.Holder;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.Items;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.CheckReturnValue;
+import org.jetbrains.annotations.Contract;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Immutable compiled item matcher. Stores the items as a dense bitset indexed by
+ * the item registry raw ID, so the check is one array load and bit test.
+ * Raw IDs might be remapped by the registry sync, the matcher should be recompiled if that happens.
+ *
+ * @author VidTu
+ * @see #compile(Iterable)
+ */
+@ApiStatus.Internal
+@NullMarked
+public final class BMatcher {
+    /**
+     * Matcher that matches nothing.
+     */
+    public static final BMatcher EMPTY = new BMatcher(new long[0], 0);
+
+    /**
+     * Bitset of the matched item raw IDs.
+     */
+    private final long[] bits;
+
+    /**
+     * Number of the matched items.
+     */
+    private final int size;
+
+    /**
+     * Creates a new matcher.
+     *
+     * @param bits Bitset of the matched item raw IDs, not copied
+     * @param size Number of the matched items
+     */
+    @Contract(pure = true)
+    private BMatcher(long[] bits, int size) {
+        this.bits = bits;
+        this.size = size;
+    }
+
+    /**
+     * Gets whether the item is matched.
+     *
+     * @param item Item to check
+     * @return Whether the item is matched
+     */
+    @Contract(pure = true)
+    public boolean contains(Item item) {
+        return this.contains(BuiltInRegistries.ITEM.getId(item));
+    }
+
+    /**
+     * Gets whether the item is matched.
+     *
+     * @param id Item registry raw ID to check, negative values are never matched
+     * @return Whether the item is matched
+     */
+    @Contract(pure = true)
+    public boolean contains(int id) {
+        int word = (id >>> 6);
+        return ((word < this.bits.length) && ((this.bits[word] & (1L << id)) != 0L));
+    }
+
+    /**
+     * Gets the size.
+     *
+     * @return Number of the matched items
+     */
+    @Contract(pure = true)
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Creates a copy of this matcher with the item added.
+     *
+     * @param id Item registry raw ID to add, negative values are ignored
+     * @return A new matcher with the item matched, this matcher if already matched or the ID is negative
+     */
+    @CheckReturnValue
+    public BMatcher with(int id) {
+        // Skip if already matched or negative.
+        if ((id < 0) || this.contains(id)) return this;
+
+        // Copy and set the bit.
+        long[] copy = Arrays.copyOf(this.bits, Math.max(this.bits.length, (id >>> 6) + 1));
+        copy[id >>> 6] |= (1L << id);
+        return new BMatcher(copy, this.size + 1);
+    }
+
+    /**
+     * Creates a copy of this matcher with the item removed.
+     *
+     * @param id Item registry raw ID to remove
+     * @return A new matcher without the item matched, this matcher if not matched
+     */
+    @CheckReturnValue
+    public BMatcher without(int id) {
+        // Skip if not matched.
+        if (!this.contains(id)) return this;
+
+        // Copy and clear the bit.
+        if (this.size == 1) return EMPTY;
+        long[] copy = this.bits.clone();
+        copy[id >>> 6] &= ~(1L << id);
+        return new BMatcher(copy, this.size - 1);
+    }
+
+    @Contract(pure = true)
+    @Override
+    public String toString() {
+        return "BSCFSIO/BMatcher{" +
+                "size=" + this.size +
+                ", bits=" + Arrays.toString(this.bits) +
+                '}';
+    }
+
+    /**
+     * Compiles the matcher from item IDs, {@code #namespace:path} item tags, and item ID patterns against
+     * the current item registry. Tags are expanded into their current members, the matcher should be recompiled
+     * when the tags are synced. Patterns are expanded against the registry once, here, and never evaluated per check.
+     * Unknown, invalid, or {@link Items#AIR} IDs, unknown or unbound tags, and invalid patterns are silently ignored.
+     *
+     * @param ids Item IDs, tags, and patterns to compile
+     * @return Compiled matcher
+     * @see #isPattern(String)
+     */
+    @CheckReturnValue
+    public static BMatcher compile(Iterable<@Nullable String> ids) {
+        // Resolve all IDs and tags, collect the patterns.
+        long[] bits = new long[(BuiltInRegistries.ITEM.size() + 63) >>> 6];
+        List<Pattern> patterns = new ArrayList<>(0);
+        for (String id : ids) {
+            // Skip nulls.
+            if (id == null) continue;
+
+            // Expand the tag.
+            if (id.startsWith("#")) {
+                ResourceLocation location = ResourceLocation.tryParse(id.substring(1));
+                if (location == null) continue;
+                for (Holder<Item> holder : BuiltInRegistries.ITEM.getTagOrEmpty(TagKey.create(Registries.ITEM, location))) {
+                    bits = set(bits, holder.value());
+                }
+                continue;
+            }
+
+            // Collect the pattern.
+            if (isPattern(id)) {
+                Pattern pattern = pattern(id);
+                if (pattern == null) continue;
+                patterns.add(pattern);
+                continue;
+            }
+
+            // Skip invalid or unknown IDs.
+            ResourceLocation location = ResourceLocation.tryParse(id);
+            if (location == null) continue;
+            bits = set(bits, BuiltInRegistries.ITEM.get(location));
+        }
+
+        // Expand the patterns in a single registry pass.
+        if (!patterns.isEmpty()) {
+            for (Map.Entry<ResourceKey<Item>, Item> entry : BuiltInRegistries.ITEM.entrySet()) {
+                String key = entry.getKey().location().toString();
+                for (Pattern pattern : patterns) {
+                    if (!pattern.matcher(key).matches()) continue;
+                    bits = set(bits, entry.getValue());
+                    break;
+                }
+            }
+        }
+
+        // Count the items.
+        int size = 0;
+        for (long word : bits) {
+            size += Long.bitCount(word);
+        }
+
+        // Create.
+        return ((size == 0) ? EMPTY : new BMatcher(bits, size));
+    }
+
+    /**
+     * Collects the current contents of the {@code #namespace:path} item tags referenced by the entries.
+     * Tags already in the map are skipped. Unknown, invalid, or unbound tags are collected as empty.
+     *
+     * @param ids      Item IDs, tags, and patterns to collect the tags from
+     * @param contents Map to put the tag members by the tag entries into
+     */
+    static void tags(Iterable<@Nullable String> ids, Map<String, List<Item>> contents) {
+        for (String id : ids) {
+            // Skip nulls, non-tags, and collected tags.
+            if ((id == null) || !id.startsWith("#") || contents.containsKey(id)) continue;
+
+            // Collect.
+            List<Item> items = new ArrayList<>();
+            ResourceLocation location = ResourceLocation.tryParse(id.substring(1));
+            if (location != null) {
+                for (Holder<Item> holder : BuiltInRegistries.ITEM.getTagOrEmpty(TagKey.create(Registries.ITEM, location))) {
+                    items.add(holder.value());
+                }
+            }
+            contents.put(id, items);
+        }
+    }
+
+    /**
+     * Gets whether the entry is a pattern. Patterns are {@code ~regex} regular expressions matched against
+     * the full {@code namespace:path} item IDs, or globs with {@code *} and {@code ?} wildcards, e.g. {@code *_shulker_box}
+     * or {@code somemod:*}. Globs without the namespace match the item paths of any namespace.
+     *
+     * @param entry Entry to check
+     * @return Whether the entry is a glob or a regex pattern
+     */
+    @Contract(pure = true)
+    public static boolean isPattern(String entry) {
+        return (entry.startsWith("~") || (entry.indexOf('*') != -1) || (entry.indexOf('?') != -1));
+    }
+
+    /**
+     * Compiles the pattern entry into the full item ID regular expression.
+     *
+     * @param entry Pattern entry
+     * @return Compiled pattern, {@code null} if invalid
+     * @see #isPattern(String)
+     */
+    @Contract(pure = true)
+    private static @Nullable Pattern pattern(String entry) {
+        // Compile the regex.
+        if (entry.startsWith("~")) {
+            try {
+                return Pattern.compile(entry.substring(1));
+            } catch (PatternSyntaxException ignored) {
+                return null;
+            }
+        }
+
+        // Convert the glob.
+        StringBuilder regex = new StringBuilder(entry.length() + 16);
+        if (entry.indexOf(':') == -1) {
+            regex.append("[^:]*:");
+        }
+        int literal = 0;
+        for (int i = 0, length = entry.length(); i < length; i++) {
+            char c = entry.charAt(i);
+            if ((c != '*') && (c != '?')) continue;
+            if (literal < i) {
+                regex.append(Pattern.quote(entry.substring(literal, i)));
+            }
+            regex.append((c == '*') ? ".*" : ".");
+            literal = i + 1;
+        }
+        if (literal < entry.length()) {
+            regex.append(Pattern.quote(entry.substring(literal)));
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    /**
+     * Sets the item bit.
+     *
+     * @param bits Bitset to set the bit in
+     * @param item Item to set, {@link Items#AIR} is ignored
+     * @return Bitset with the bit set, might be a grown copy
+     */
+    @CheckReturnValue
+    private static long[] set(long[] bits, Item item) {
+        // Skip air and unregistered items.
+        if (item == Items.AIR) return bits;
+        int raw = BuiltInRegistries.ITEM.getId(item);
+        if (raw < 0) return bits;
+
+        // Grow the bitset, if needed. (shouldn't happen, but raw IDs aren't guaranteed to be dense)
+        int word = (raw >>> 6);
+        if (word >= bits.length) {
+            bits = Arrays.copyOf(bits, word + 1);
+        }
+
+        // Set the bit.
+        bits[word] |= (1L << raw);
+        return bits;
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024-2025 VidTu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.vidtu.bscfsio;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import net.fabricmc.loader.api.FabricLoader;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Contract;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.objectweb.asm.tree.ClassNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.spongepowered.asm.mixin.extensibility.IMixinConfigPlugin;
+import org.spongepowered.asm.mixin.extensibility.IMixinInfo;
+
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Mixin config plugin that leaves out the hooks of the features disabled in the saved config.
+ * The config is read as a raw JSON, because {@link BConfig} can't be loaded this early.
+ *
+ * @author VidTu
+ */
+@ApiStatus.Internal
+@NullMarked
+public final class BMixinPlugin implements IMixinConfigPlugin {
+    /**
+     * Logger for this class.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger("BSCFSIO/BMixinPlugin");
+
+    /**
+     * Whether the slot overlays can ever be shown, i.e. the visual overlay or the lock indicator is enabled at startup.
+     * Decided once, the JIT folds the overlay branches away if {@code false}.
+     */
+    public static final boolean OVERLAY = overlay();
+
+    /**
+     * Creates a new plugin.
+     */
+    @Contract(pure = true)
+    public BMixinPlugin() {
+        // Empty
+    }
+
+    @Override
+    public void onLoad(String mixinPackage) {
+        // Log.
+        LOGGER.info("BSCFSIO: Slot overlay hooks are {}.", OVERLAY ? "enabled" : "disabled");
+    }
+
+    @Contract(pure = true)
+    @Override
+    public @Nullable String getRefMapperConfig() {
+        return null;
+    }
+
+    @Contract(pure = true)
+    @Override
+    public boolean shouldApplyMixin(String targetClassName, String mixinClassName) {
+        // Skip the overlay rendering if the overlays can never be shown.
+        if (mixinClassName.endsWith(".AbstractContainerScreenRenderMixin")) return OVERLAY;
+        return true;
+    }
+
+    @Override
+    public void acceptTargets(Set<String> myTargets, Set<String> otherTargets) {
+        // Empty
+    }
+
+    @Contract(pure = true)
+    @Override
+    public @Nullable List<String> getMixins() {
+        return null;
+    }
+
+    @Override
+    public void preApply(String targetClassName, ClassNode targetClass, String mixinClassName, IMixinInfo mixinInfo) {
+        // Empty
+    }
+
+    @Override
+    public void postApply(String targetClassName, ClassNode targetClass, String mixinClassName, IMixinInfo mixinInfo) {
+        // Empty
+    }
+
+    /**
+     * Reads whether the slot overlays are enabled in the saved config. Mirrors the {@link BConfig} defaults.
+     *
+     * @return Whether the visual overlay or the lock indicator is enabled, {@code true} if unable to read the config
+     */
+    private static boolean overlay() {
+        // Enable if no config.
+        Path path = FabricLoader.getInstance().getConfigDir().resolve("bscfsio.json");
+        if (!Files.isRegularFile(path)) return true;
+
+        // Read.
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            JsonElement element = JsonParser.parseReader(reader);
+            if (!element.isJsonObject()) return true;
+            JsonObject json = element.getAsJsonObject();
+            JsonElement visual = json.get("visual");
+            JsonElement lockIndicator = json.get("lockIndicator");
+            return ((visual == null) || (visual.getAsLong() > 0L) || ((lockIndicator != null) && lockIndicator.getAsBoolean()));
+        } catch (Throwable t) {
+            // Log.
+            LOGGER.warn("BSCFSIO: Unable to read the config for the mixins, the slot overlay hooks will be applied. (path: {})", path, t);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024-2025 VidTu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.vidtu.bscfsio;
+
+import com.mojang.blaze3d.vertex.VertexConsumer;
+import net.minecraft.client.gui.GuiGraphics;
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.util.FastColor;
+import net.minecraft.world.inventory.AbstractContainerMenu;
+import net.minecraft.world.inventory.Slot;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.CheckReturnValue;
+import org.jetbrains.annotations.Contract;
+import org.joml.Matrix4f;
+import org.jspecify.annotations.NullMarked;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sparse table and batched renderer for the slot visual overlays. Only the slots with a live overlay are stored,
+ * keyed by their index in the current menu. The table is emptied when the menu changes or gets closed.
+ * Must be accessed only from the client thread.
+ *
+ * @author VidTu
+ */
+@ApiStatus.Internal
+@NullMarked
+public final class BOverlay {
+    /**
+     * Indexes of the slots with the live overlays in the {@link #container} menu. Only first {@link #size} are valid.
+     */
+    private static int[] slots = new int[8];
+
+    /**
+     * Times when the overlay rendering should be stopped, parallel to {@link #slots}. (in units of {@link System#nanoTime()})
+     */
+    private static long[] until = new long[8];
+
+    /**
+     * Number of the live overlays in the table.
+     */
+    private static int size;
+
+    /**
+     * ID of the container menu the overlays belong to.
+     */
+    private static int container;
+
+    /**
+     * An instance of this class cannot be created.
+     *
+     * @throws AssertionError Always
+     * @deprecated Always throws
+     */
+    @Deprecated(forRemoval = true)
+    @Contract(value = "-> fail", pure = true)
+    private BOverlay() {
+        throw new AssertionError("No instances.");
+    }
+
+    /**
+     * Gets whether any overlay might be active.
+     *
+     * @return Whether the table is not empty
+     */
+    @Contract(pure = true)
+    public static boolean active() {
+        return (size != 0);
+    }
+
+    /**
+     * Shows the overlay on the slot.
+     *
+     * @param menu Container menu ID
+     * @param slot Slot index in the menu
+     * @param time Time to stop rendering (in units of {@link System#nanoTime()})
+     */
+    public static void show(int menu, int slot, long time) {
+        // Record.
+        BJournal.overlay(menu, slot);
+
+        // Drop the overlays of the other menu.
+        if (menu != container) {
+            size = 0;
+            container = menu;
+        }
+
+        // Update the existing entry, if any.
+        for (int i = 0; i < size; i++) {
+            if (slots[i] != slot) continue;
+            until[i] = time;
+            return;
+        }
+
+        // Grow the table, if needed.
+        if (size == slots.length) {
+            slots = Arrays.copyOf(slots, size << 1);
+            until = Arrays.copyOf(until, size << 1);
+        }
+
+        // Add the entry.
+        slots[size] = slot;
+        until[size] = time;
+        size++;
+    }
+
+    /**
+     * Removes all overlays.
+     */
+    public static void clear() {
+        size = 0;
+    }
+
+    /**
+     * Drops the expired overlays and the overlays of slots out of the menu bounds.
+     *
+     * @param now      Current time (in units of {@link System#nanoTime()})
+     * @param menuSize Number of the slots in the menu
+     * @return Number of the live overlays left
+     */
+    static int expire(long now, int menuSize) {
+        for (int i = 0; i < size; i++) {
+            // Skip live entries.
+            if ((now < until[i]) && (slots[i] < menuSize)) continue;
+
+            // Remove the entry by swapping the last one in.
+            size--;
+            slots[i] = slots[size];
+            until[i] = until[size];
+            i--;
+        }
+        return size;
+    }
+
+    /**
+     * Renders all active overlays and the lock indicators in a single batch, dropping the expired overlays.
+     *
+     * @param graphics Graphics to render the overlays with, the pose should be translated to the screen's origin
+     * @param menu     Menu to render the overlays of
+     * @param color    ARGB color of the overlays
+     * @param locks    Whether to mark the protected slots via {@link BMask}
+     * @return Number of rendered overlay quads
+     */
+    @CheckReturnValue
+    public static int render(GuiGraphics graphics, AbstractContainerMenu menu, int color, boolean locks) {
+        // Drop the overlays of the other menu.
+        if ((size != 0) && (menu.containerId != container)) {
+            size = 0;
+        }
+
+        // Drop the expired overlays. Skip if nothing is left to render.
+        List<Slot> menuSlots = menu.slots;
+        if (size != 0) {
+            expire(System.nanoTime(), menuSlots.size());
+        }
+        if ((size == 0) && !locks) return 0;
+
+        // Prepare the buffer.
+        VertexConsumer buffer = graphics.bufferSource().getBuffer(RenderType.guiOverlay());
+        Matrix4f pose = graphics.pose().last().pose();
+        float alpha = FastColor.ARGB32.alpha(color) / 255.0F;
+        float red = FastColor.ARGB32.red(color) / 255.0F;
+        float green = FastColor.ARGB32.green(color) / 255.0F;
+        float blue = FastColor.ARGB32.blue(color) / 255.0F;
+
+        // Emit the quads for all live slots.
+        int quads = 0;
+        for (int i = 0; i < size; i++) {
+            // Skip inactive slots.
+            Slot slot = menuSlots.get(slots[i]);
+            if (!slot.isActive()) continue;
+
+            // Emit the quad.
+            quad(buffer, pose, slot.x, slot.y, 16.0F, red, green, blue, alpha);
+            quads++;
+        }
+
+        // Emit the corner quads for all protected slots.
+        if (locks) {
+            for (int i = 0, menuSize = menuSlots.size(); i < menuSize; i++) {
+                // Skip inactive and unprotected slots.
+                Slot slot = menuSlots.get(i);
+                if (!slot.isActive() || !BMask.isProtected(menu, i)) continue;
+
+                // Emit the quad.
+                quad(buffer, pose, slot.x, slot.y, 4.0F, red, green, blue, alpha);
+                quads++;
+            }
+        }
+
+        // Draw everything at once.
+        graphics.flush();
+
+        // Return the count.
+        return quads;
+    }
+
+    /**
+     * Emits the square quad.
+     *
+     * @param buffer Buffer to emit the quad into
+     * @param pose   Current pose
+     * @param x      Quad left X position
+     * @param y      Quad top Y position
+     * @param side   Quad side length
+     * @param red    Red color component
+     * @param green  Green color component
+     * @param blue   Blue color component
+     * @param alpha  Alpha color component
+     */
+    private static void quad(VertexConsumer buffer, Matrix4f pose, float x, float y, float side, float red, float green, float blue, float alpha) {
+        float maxX = x + side;
+        float maxY = y + side;
+        buffer.vertex(pose, x, y, 0.0F).color(red, green, blue, alpha).endVertex();
+        buffer.vertex(pose, x, maxY, 0.0F).color(red, green, blue, alpha).endVertex();
+        buffer.vertex(pose, maxX, maxY, 0.0F).color(red, green, blue, alpha).endVertex();
+        buffer.vertex(pose, maxX, y, 0.0F).color(red, green, blue, alpha).endVertex();
+    }
+}
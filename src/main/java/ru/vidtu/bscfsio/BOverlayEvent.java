@@ -24,31 +24,46 @@
 
 package ru.vidtu.bscfsio;
 
-import net.minecraft.world.inventory.Slot;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Contract;
 import org.jspecify.annotations.NullMarked;
 
 /**
- * Extension for {@link Slot}.
+ * JFR event for the per-frame slot overlay passes.
  *
  * @author VidTu
  */
 @ApiStatus.Internal
+@Name("ru.vidtu.bscfsio.Overlay")
+@Label("BSCFSIO Overlay")
+@Category("BSCFSIO")
+@Description("Per-frame slot overlay pass.")
+@StackTrace(false)
 @NullMarked
-public interface BSlot {
+public final class BOverlayEvent extends Event {
     /**
-     * Gets the time when overlay rendering should be stopped.
-     *
-     * @return Time to stop rendering (in units of {@link System#nanoTime()})
+     * Number of the slots in the menu.
      */
-    @Contract(pure = true)
-    long bscfsio_renderOverlayUntil();
+    @Label("Slots")
+    public int slots;
 
     /**
-     * Sets the time when overlay rendering should be stopped.
-     *
-     * @param time Time to stop rendering (in units of {@link System#nanoTime()})
+     * Number of the drawn overlays.
      */
-    void bscfsio_renderOverlayUntil(long time);
+    @Label("Overlays")
+    public int overlays;
+
+    /**
+     * Creates a new event.
+     */
+    @Contract(pure = true)
+    public BOverlayEvent() {
+        // Empty
+    }
 }
@@ -0,0 +1,374 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024-2025 VidTu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.vidtu.bscfsio;
+
+import me.shedaniel.clothconfig2.api.AbstractConfigEntry;
+import me.shedaniel.clothconfig2.gui.ClothConfigScreen;
+import me.shedaniel.clothconfig2.gui.entries.BaseListCell;
+import me.shedaniel.clothconfig2.gui.entries.StringListListEntry;
+import net.minecraft.ChatFormatting;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.GuiGraphics;
+import net.minecraft.client.gui.components.Button;
+import net.minecraft.client.gui.components.EditBox;
+import net.minecraft.client.gui.screens.Screen;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.network.chat.CommonComponents;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.contents.TranslatableContents;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Contract;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.vidtu.bscfsio.mixins.BaseListEntryAccessor;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Searchable item picker for the {@link BConfig} item list, backed by the {@link BItemIndex}.
+ * Opened via the button added to the config screen, the picked items are written into the item list entry
+ * of that screen and saved together with the other edits.
+ *
+ * @author VidTu
+ */
+@ApiStatus.Internal
+@NullMarked
+final class BPickerScreen extends Screen {
+    /**
+     * Logger for this class.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger("BSCFSIO/BPickerScreen");
+
+    /**
+     * Size of the item grid cell.
+     */
+    private static final int CELL = 18;
+
+    /**
+     * Translation key of the item list entry name.
+     */
+    private static final String ITEMS_KEY = "text.autoconfig.bscfsio.option.items";
+
+    /**
+     * Last created config screen, {@code null} if none.
+     */
+    private static WeakReference<@Nullable Screen> configScreen = new WeakReference<>(null);
+
+    /**
+     * Config screen to return to.
+     */
+    private final Screen config;
+
+    /**
+     * Item list entry of the config screen to write the picked items into.
+     */
+    private final StringListListEntry entry;
+
+    /**
+     * Selected item IDs, in the config order.
+     */
+    private final Set<String> selected;
+
+    /**
+     * Index being built or built.
+     */
+    private final CompletableFuture<BItemIndex> index;
+
+    /**
+     * Found item stacks for the current query, {@code null} if not searched yet.
+     */
+    private @Nullable List<ItemStack> found;
+
+    /**
+     * Search box, {@code null} if not initialized.
+     */
+    @Nullable
+    private EditBox search;
+
+    /**
+     * Creates a new picker.
+     *
+     * @param config Config screen to return to
+     * @param entry  Item list entry of the config screen to write the picked items into
+     */
+    private BPickerScreen(Screen config, StringListListEntry entry) {
+        super(Component.translatable("bscfsio.picker"));
+        this.config = config;
+        this.entry = entry;
+        this.selected = new LinkedHashSet<>();
+        for (String item : entry.getValue()) {
+            // Skip nulls, expand the IDs without the namespace.
+            if (item == null) continue;
+            ResourceLocation location = (item.startsWith("#") || BMatcher.isPattern(item)) ? null : ResourceLocation.tryParse(item);
+            this.selected.add((location != null) ? location.toString() : item);
+        }
+        this.index = BItemIndex.get();
+    }
+
+    @Override
+    protected void init() {
+        // Add the search box.
+        EditBox box = new EditBox(this.font, (this.width - 200) / 2, 20, 200, 16, (this.search != null) ? this.search : null, Component.translatable("bscfsio.picker.search"));
+        box.setHint(Component.translatable("bscfsio.picker.search").withStyle(ChatFormatting.DARK_GRAY));
+        box.setResponder(query -> this.found = null);
+        this.search = box;
+        this.addRenderableWidget(box);
+        this.setInitialFocus(box);
+
+        // Add the buttons.
+        this.addRenderableWidget(Button.builder(CommonComponents.GUI_DONE, btn -> this.done())
+                .bounds(this.width / 2 - 155, this.height - 26, 150, 20)
+                .build());
+        this.addRenderableWidget(Button.builder(CommonComponents.GUI_CANCEL, btn -> this.onClose())
+                .bounds(this.width / 2 + 5, this.height - 26, 150, 20)
+                .build());
+
+        // Research on resize.
+        this.found = null;
+    }
+
+    @Override
+    public void render(GuiGraphics graphics, int mouseX, int mouseY, float partialTick) {
+        // Render the background and the widgets.
+        this.renderBackground(graphics);
+        graphics.drawCenteredString(this.font, this.title, this.width / 2, 6, 0xFF_FF_FF_FF);
+        super.render(graphics, mouseX, mouseY, partialTick);
+
+        // Render the indexing message, if not built yet.
+        List<ItemStack> stacks = this.found();
+        if (stacks == null) {
+            graphics.drawCenteredString(this.font, Component.translatable("bscfsio.picker.indexing"), this.width / 2, this.height / 2, 0xFF_AA_AA_AA);
+            return;
+        }
+
+        // Render the grid.
+        int columns = this.columns();
+        int left = (this.width - columns * CELL) / 2;
+        int color = BConfig.snapshot().visualColor();
+        @Nullable ItemStack hovered = null;
+        for (int i = 0, size = stacks.size(); i < size; i++) {
+            // Highlight the selected items.
+            ItemStack stack = stacks.get(i);
+            int x = left + (i % columns) * CELL;
+            int y = 42 + (i / columns) * CELL;
+            if (this.selected.contains(id(stack.getItem()))) {
+                graphics.fill(x, y, x + CELL, y + CELL, color);
+            }
+
+            // Render the item.
+            graphics.renderItem(stack, x + 1, y + 1);
+            if ((mouseX < x) || (mouseY < y) || (mouseX >= x + CELL) || (mouseY >= y + CELL)) continue;
+            graphics.fill(x + 1, y + 1, x + CELL - 1, y + CELL - 1, 0x80_FF_FF_FF);
+            hovered = stack;
+        }
+
+        // Render the tooltip.
+        if (hovered == null) return;
+        graphics.renderComponentTooltip(this.font, List.of(hovered.getHoverName(), Component.literal(id(hovered.getItem())).withStyle(ChatFormatting.DARK_GRAY)), mouseX, mouseY);
+    }
+
+    @Override
+    public boolean mouseClicked(double mouseX, double mouseY, int button) {
+        // Handle the widgets.
+        if (super.mouseClicked(mouseX, mouseY, button)) return true;
+
+        // Find the clicked cell.
+        List<ItemStack> stacks = this.found();
+        if (stacks == null) return false;
+        int columns = this.columns();
+        int left = (this.width - columns * CELL) / 2;
+        int column = (int) Math.floor((mouseX - left) / CELL);
+        int row = (int) Math.floor((mouseY - 42) / CELL);
+        int index = row * columns + column;
+        if ((column < 0) || (column >= columns) || (row < 0) || (index >= stacks.size())) return false;
+
+        // Toggle the item.
+        String id = id(stacks.get(index).getItem());
+        if (!this.selected.remove(id)) {
+            this.selected.add(id);
+        }
+        return true;
+    }
+
+    @Override
+    public void onClose() {
+        // Return to the config screen.
+        assert this.minecraft != null : "BSCFSIO: Minecraft is null at closing the picker. (screen: " + this + ')';
+        this.minecraft.setScreen(this.config); // Implicit NPE for 'minecraft'
+    }
+
+    /**
+     * Writes the selected items into the item list entry and returns to the config screen.
+     * The config is saved by the config screen, as with any other edit.
+     */
+    private void done() {
+        // Log. (**DEBUG**)
+        LOGGER.debug("BSCFSIO: Writing picked items... (selected: {}, entry: {})", this.selected, this.entry);
+
+        // Replace the cells, the same way the entry resets itself.
+        BaseListEntryAccessor accessor = (BaseListEntryAccessor) this.entry;
+        List<BaseListCell> cells = accessor.bscfsio_cells();
+        accessor.bscfsio_widgets().removeAll(cells);
+        accessor.bscfsio_narratables().removeAll(cells);
+        for (BaseListCell cell : cells) {
+            cell.onDelete();
+        }
+        cells.clear();
+        for (String id : this.selected) {
+            cells.add(accessor.bscfsio_getFromValue(id));
+        }
+        for (BaseListCell cell : cells) {
+            cell.onAdd();
+        }
+        accessor.bscfsio_widgets().addAll(cells);
+        accessor.bscfsio_narratables().addAll(cells);
+
+        // Return.
+        this.onClose();
+    }
+
+    /**
+     * Gets the found items, searching the index if needed.
+     *
+     * @return Found item stacks, {@code null} if the index is not built yet
+     */
+    private @Nullable List<ItemStack> found() {
+        // Return the found items, if searched.
+        List<ItemStack> stacks = this.found;
+        if (stacks != null) return stacks;
+
+        // Skip if not built yet.
+        BItemIndex built = this.index.getNow(null);
+        if (built == null) return null;
+
+        // Search.
+        int limit = this.columns() * Math.max(1, (this.height - 42 - 32) / CELL);
+        List<Item> items = built.find((this.search != null) ? this.search.getValue() : "", limit);
+        stacks = new ArrayList<>(items.size());
+        for (Item item : items) {
+            stacks.add(new ItemStack(item));
+        }
+        this.found = stacks;
+        return stacks;
+    }
+
+    /**
+     * Gets the columns.
+     *
+     * @return Number of the item grid columns
+     */
+    @Contract(pure = true)
+    private int columns() {
+        return Math.max(1, Math.min(18, (this.width - 20) / CELL));
+    }
+
+    @Contract(pure = true)
+    @Override
+    public String toString() {
+        return "BSCFSIO/BPickerScreen{" +
+                "config=" + this.config +
+                ", selected=" + this.selected +
+                ", found=" + ((this.found != null) ? this.found.size() : null) +
+                '}';
+    }
+
+    /**
+     * Remembers the created config screen to add the picker button to it.
+     *
+     * @param screen Created config screen
+     */
+    static void attach(Screen screen) {
+        configScreen = new WeakReference<>(screen);
+    }
+
+    /**
+     * Adds the picker button to the screen, if it's the last created config screen.
+     *
+     * @param screen  Initialized screen
+     * @param buttons Screen buttons to add to
+     */
+    static void addButton(Screen screen, List<? super Button> buttons) {
+        // Skip other screens.
+        if (screen != configScreen.get()) return;
+
+        // Find the item list entry.
+        StringListListEntry entry = entry(screen);
+        if (entry == null) {
+            // Log, skip.
+            LOGGER.warn("BSCFSIO: Unable to find the item list entry, the picker won't be available. (screen: {})", screen);
+            return;
+        }
+
+        // Add the button.
+        buttons.add(Button.builder(Component.translatable("bscfsio.picker"), btn -> Minecraft.getInstance().setScreen(new BPickerScreen(screen, entry)))
+                .bounds(4, 4, 80, 20)
+                .build());
+    }
+
+    /**
+     * Finds the item list entry of the config screen.
+     *
+     * @param screen Config screen to search in
+     * @return Item list entry, {@code null} if not found
+     */
+    @Contract(pure = true)
+    private static @Nullable StringListListEntry entry(Screen screen) {
+        // Skip unknown screens.
+        if (!(screen instanceof ClothConfigScreen cloth)) return null;
+
+        // Find by the field name.
+        for (Map.Entry<Component, List<AbstractConfigEntry<?>>> category : cloth.getCategorizedEntries().entrySet()) {
+            for (AbstractConfigEntry<?> entry : category.getValue()) {
+                if (!(entry instanceof StringListListEntry list)) continue;
+                if (!(list.getFieldName().getContents() instanceof TranslatableContents contents)) continue;
+                if (!ITEMS_KEY.equals(contents.getKey())) continue;
+                return list;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the item ID.
+     *
+     * @param item Item to get the ID of
+     * @return Item ID string
+     */
+    @Contract(pure = true)
+    private static String id(Item item) {
+        return BuiltInRegistries.ITEM.getKey(item).toString();
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024-2025 VidTu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.vidtu.bscfsio;
+
+import net.minecraft.world.inventory.ClickType;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.CheckReturnValue;
+import org.jspecify.annotations.NullMarked;
+
+import java.util.Arrays;
+
+/**
+ * Policy of handling the {@link ClickType}.
+ *
+ * @author VidTu
+ * @see BSnapshot#policy(int)
+ */
+@ApiStatus.Internal
+@NullMarked
+public enum BPolicy {
+    /**
+     * Click is never blocked.
+     */
+    IGNORE,
+
+    /**
+     * Click is blocked if the clicked slot's stack is protected. Used for {@link ClickType#QUICK_MOVE} and {@link ClickType#THROW}.
+     */
+    SLOT,
+
+    /**
+     * Click is blocked if either the clicked slot's stack or the swapped inventory stack is protected. Used for {@link ClickType#SWAP}.
+     */
+    SWAP,
+
+    /**
+     * Click is blocked if any stack gathered to the carried one is protected. Used for {@link ClickType#PICKUP_ALL}.
+     */
+    GATHER,
+
+    /**
+     * Whole gesture is blocked if the carried stack is protected at the start of it. Used for {@link ClickType#QUICK_CRAFT}.
+     */
+    DRAG;
+
+    /**
+     * Compiles the click policies from the config toggles.
+     *
+     * @param quickMove  Whether to block shift-clicking ({@link ClickType#QUICK_MOVE}) protected items
+     * @param swap       Whether to block number key and offhand swapping ({@link ClickType#SWAP}) protected items
+     * @param throwing   Whether to block throwing ({@link ClickType#THROW}) protected items from slots
+     * @param pickupAll  Whether to block double-click gathering ({@link ClickType#PICKUP_ALL}) of protected items
+     * @param quickCraft Whether to block drag-splitting ({@link ClickType#QUICK_CRAFT}) protected items
+     * @return A new array of the click policies indexed by {@link ClickType#ordinal()}
+     */
+    @CheckReturnValue
+    static BPolicy[] compile(boolean quickMove, boolean swap, boolean throwing, boolean pickupAll, boolean quickCraft) {
+        BPolicy[] policies = new BPolicy[ClickType.values().length];
+        Arrays.fill(policies, IGNORE);
+        if (quickMove) policies[ClickType.QUICK_MOVE.ordinal()] = SLOT;
+        if (swap) policies[ClickType.SWAP.ordinal()] = SWAP;
+        if (throwing) policies[ClickType.THROW.ordinal()] = SLOT;
+        if (pickupAll) policies[ClickType.PICKUP_ALL.ordinal()] = GATHER;
+        if (quickCraft) policies[ClickType.QUICK_CRAFT.ordinal()] = DRAG;
+        return policies;
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024-2025 VidTu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.vidtu.bscfsio;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.CheckReturnValue;
+import org.jetbrains.annotations.Contract;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Per-server protection profiles. A profile replaces the {@link BConfig} item list while connected to its server.
+ * Compiled profile matchers are kept in a small LRU cache, so reconnecting or hopping between servers doesn't
+ * recompile them. The cache is invalidated when the config is changed or the item raw IDs are remapped.
+ *
+ * @author VidTu
+ */
+@ApiStatus.Internal
+@NullMarked
+final class BProfiles {
+    /**
+     * Logger for this class.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger("BSCFSIO/BProfiles");
+
+    /**
+     * Maximum number of the cached compiled matchers.
+     */
+    private static final int CACHE_SIZE = 8;
+
+    /**
+     * Cached compiled matchers by the normalized server address, in access order. Guarded by itself.
+     */
+    private static final LinkedHashMap<String, BMatcher> CACHE = new LinkedHashMap<>(CACHE_SIZE, 0.75F, /*accessOrder=*/true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, BMatcher> eldest) {
+            return (this.size() > CACHE_SIZE);
+        }
+    };
+
+    /**
+     * Normalized address of the current server, {@code null} if not connected to any.
+     */
+    @Nullable
+    private static volatile String server;
+
+    /**
+     * An instance of this class cannot be created.
+     *
+     * @throws AssertionError Always
+     * @deprecated Always throws
+     */
+    @Deprecated(forRemoval = true)
+    @Contract(value = "-> fail", pure = true)
+    private BProfiles() {
+        throw new AssertionError("No instances.");
+    }
+
+    /**
+     * Parses the profiles. Each profile is {@code <address> = <item> [item...]}, items are separated by spaces or commas.
+     * Invalid profiles are logged and ignored.
+     *
+     * @param profiles Profiles to parse, {@code null} elements are ignored
+     * @return A new unmodifiable map of the item lists by the normalized server address
+     */
+    @CheckReturnValue
+    static Map<String, List<String>> parse(Iterable<@Nullable String> profiles) {
+        Map<String, List<String>> parsed = new HashMap<>();
+        for (String profile : profiles) {
+            // Skip nulls.
+            if (profile == null) continue;
+
+            // Split.
+            int separator = profile.indexOf('=');
+            String address = address(profile);
+            if (address.isEmpty()) {
+                LOGGER.warn("BSCFSIO: Ignoring invalid profile. (profile: {})", profile);
+                continue;
+            }
+            List<String> items = Arrays.stream(profile.substring(separator + 1).split("[\\s,]+"))
+                    .filter(item -> !item.isEmpty())
+                    .toList();
+
+            // Add.
+            if (parsed.putIfAbsent(address, items) == null) continue;
+            LOGGER.warn("BSCFSIO: Ignoring duplicate profile. (profile: {}, address: {})", profile, address);
+        }
+        return Collections.unmodifiableMap(parsed);
+    }
+
+    /**
+     * Gets the normalized address of the profile.
+     *
+     * @param profile Profile to get the address of
+     * @return Normalized profile address, empty if invalid
+     */
+    @Contract(pure = true)
+    static String address(String profile) {
+        int separator = profile.indexOf('=');
+        return ((separator > 0) ? normalize(profile.substring(0, separator)) : "");
+    }
+
+    /**
+     * Gets the active profile.
+     *
+     * @param profiles Parsed profiles
+     * @return Normalized address of the current server, {@code null} if not connected or there's no profile
+     */
+    @Contract(pure = true)
+    @Nullable
+    static String active(Map<String, List<String>> profiles) {
+        String address = server;
+        return (((address != null) && profiles.containsKey(address)) ? address : null);
+    }
+
+    /**
+     * Gets the matcher for the current server.
+     *
+     * @param profiles Parsed profiles
+     * @param fallback Matcher to use if there's no profile for the current server
+     * @return Compiled profile matcher, {@code fallback} if not connected or there's no profile
+     */
+    static BMatcher matcher(Map<String, List<String>> profiles, BMatcher fallback) {
+        // Skip if not connected or no profile.
+        String address = server;
+        if (address == null) return fallback;
+        List<String> items = profiles.get(address);
+        if (items == null) return fallback;
+
+        // Get or compile.
+        synchronized (CACHE) {
+            BMatcher matcher = CACHE.get(address);
+            if (matcher != null) return matcher;
+
+            // Log. (**DEBUG**)
+            LOGGER.debug("BSCFSIO: Compiling profile... (address: {}, items: {})", address, items);
+
+            // Compile and cache.
+            matcher = BMatcher.compile(items);
+            CACHE.put(address, matcher);
+            return matcher;
+        }
+    }
+
+    /**
+     * Replaces the cached matcher of the profile, e.g. after an incremental update.
+     *
+     * @param address Normalized profile address
+     * @param matcher New compiled profile matcher
+     */
+    static void update(String address, BMatcher matcher) {
+        synchronized (CACHE) {
+            CACHE.put(address, matcher);
+        }
+    }
+
+    /**
+     * Invalidates all cached matchers.
+     */
+    static void invalidate() {
+        synchronized (CACHE) {
+            CACHE.clear();
+        }
+    }
+
+    /**
+     * Invalidates the cached matchers of the affected profiles only.
+     *
+     * @param profiles Parsed profiles
+     * @param affected Predicate to test the profile item lists with
+     */
+    static void invalidate(Map<String, List<String>> profiles, Predicate<List<String>> affected) {
+        synchronized (CACHE) {
+            CACHE.keySet().removeIf(address -> {
+                List<String> items = profiles.get(address);
+                return ((items == null) || affected.test(items));
+            });
+        }
+    }
+
+    /**
+     * Selects the profile of the server and republishes the config.
+     *
+     * @param address Server address, {@code null} if disconnected or in singleplayer
+     */
+    static void select(@Nullable String address) {
+        // Log. (**DEBUG**)
+        String normalized = ((address != null) ? normalize(address) : null);
+        LOGGER.debug("BSCFSIO: Selecting profile... (address: {}, normalized: {})", address, normalized);
+
+        // Select and republish.
+        server = normalized;
+        BConfig.republish();
+    }
+
+    /**
+     * Normalizes the server address, stripping the default port.
+     *
+     * @param address Address to normalize
+     * @return Normalized address
+     */
+    @Contract(pure = true)
+    private static String normalize(String address) {
+        String normalized = address.strip().toLowerCase(Locale.ROOT);
+        return (normalized.endsWith(":25565") ? normalized.substring(0, normalized.length() - 6) : normalized);
+    }
+}
@@ -0,0 +1,346 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024-2025 VidTu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.vidtu.bscfsio;
+
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.world.inventory.ClickType;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Contract;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Click-stream recorder. Writes every handled click into a compact binary file, so real sessions can be
+ * replayed offline against any config via the {@code replay} Gradle task. Records are written into a preallocated
+ * buffer on the client thread, full buffers are written to the file by a background thread.
+ * <p>
+ * File format (big-endian): {@link #MAGIC}, {@link #VERSION} as a short, then the records, each starting with
+ * the record kind byte:
+ * <ul>
+ *     <li>{@link #ITEM}: palette index as a short, UTF-8 item ID length as a short, UTF-8 item ID bytes</li>
+ *     <li>{@link #CLICK}: nanoseconds since the recording start as a long, container ID as an int, slot index, number
+ *     of the menu slots, and button ID as shorts, click type {@link ClickType#ordinal()} as a byte, item palette index
+ *     as a short ({@code -1} if empty), verdict ({@link BDecision#PASS} or {@link BDecision#BLOCK}) as a byte</li>
+ * </ul>
+ * Item IDs are stored in the palette instead of the raw IDs, because the raw IDs differ between the modpacks.
+ *
+ * @author VidTu
+ */
+@ApiStatus.Internal
+@NullMarked
+public final class BRecorder {
+    /**
+     * File magic, {@code BSCR}.
+     */
+    public static final int MAGIC = 0x42534352;
+
+    /**
+     * File format version.
+     */
+    public static final short VERSION = 1;
+
+    /**
+     * Record kind: item palette entry.
+     */
+    public static final byte ITEM = 0;
+
+    /**
+     * Record kind: inventory click.
+     */
+    public static final byte CLICK = 1;
+
+    /**
+     * Logger for this class.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger("BSCFSIO/BRecorder");
+
+    /**
+     * Buffer size in bytes. Must fit any single record. (item IDs are way shorter)
+     */
+    private static final int BUFFER = 64 * 1024;
+
+    /**
+     * Size of the {@link #CLICK} record in bytes.
+     */
+    private static final int CLICK_SIZE = 1 + 8 + 4 + 2 + 2 + 2 + 1 + 2 + 1;
+
+    /**
+     * Background writer executor.
+     */
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "BSCFSIO Click Recorder");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Recording file name time formatter.
+     */
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH.mm.ss");
+
+    /**
+     * Current record buffer, {@code null} if not recording. Accessed only by the client thread.
+     */
+    private static @Nullable ByteBuffer buffer;
+
+    /**
+     * Palette indexes plus one by the item raw IDs, {@code 0} if not in the palette yet. Accessed only by the client thread.
+     */
+    private static int[] palette = new int[0];
+
+    /**
+     * Number of the palette entries. Accessed only by the client thread.
+     */
+    private static int paletteSize;
+
+    /**
+     * Recording start time. (in units of {@link System#nanoTime()}) Accessed only by the client thread.
+     */
+    private static long started;
+
+    /**
+     * Number of the recorded clicks. Accessed only by the client thread.
+     */
+    private static long clicks;
+
+    /**
+     * Current recording file path, {@code null} if not recording. Accessed only by the client thread.
+     */
+    private static @Nullable Path path;
+
+    /**
+     * Current recording file channel. Accessed only by the {@link #EXECUTOR}.
+     */
+    private static @Nullable FileChannel channel;
+
+    /**
+     * An instance of this class cannot be created.
+     *
+     * @throws AssertionError Always
+     * @deprecated Always throws
+     */
+    @Deprecated(forRemoval = true)
+    @Contract(value = "-> fail", pure = true)
+    private BRecorder() {
+        throw new AssertionError("No instances.");
+    }
+
+    /**
+     * Starts the recording into a new file in the {@code logs} folder. Must be called only from the client thread.
+     *
+     * @return Recording file path, {@code null} if already recording
+     */
+    static @Nullable Path start() {
+        // Skip if already recording.
+        if (buffer != null) return null;
+
+        // Prepare the state.
+        Path file = FabricLoader.getInstance().getGameDir().resolve("logs").resolve("bscfsio-clicks-" + LocalDateTime.now().format(FORMATTER) + ".bscr");
+        ByteBuffer created = ByteBuffer.allocate(BUFFER);
+        created.putInt(MAGIC);
+        created.putShort(VERSION);
+        palette = new int[BuiltInRegistries.ITEM.size()];
+        paletteSize = 0;
+        started = System.nanoTime();
+        clicks = 0L;
+        path = file;
+        buffer = created;
+
+        // Open the file.
+        EXECUTOR.execute(() -> {
+            try {
+                // Log. (**DEBUG**)
+                LOGGER.debug("BSCFSIO: Opening recording... (path: {})", file);
+
+                // Open.
+                Files.createDirectories(file.getParent());
+                channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            } catch (Throwable t) {
+                // Log.
+                LOGGER.error("BSCFSIO: Unable to open recording. (path: {})", file, t);
+            }
+        });
+
+        // Log.
+        LOGGER.info("BSCFSIO: Recording clicks to {}.", file);
+        return file;
+    }
+
+    /**
+     * Stops the recording and closes the file in background. Must be called only from the client thread.
+     *
+     * @return Recording file path, {@code null} if not recording
+     */
+    static @Nullable Path stop() {
+        // Skip if not recording.
+        ByteBuffer current = buffer;
+        Path file = path;
+        if ((current == null) || (file == null)) return null;
+
+        // Flush and close.
+        long recorded = clicks;
+        buffer = null;
+        path = null;
+        palette = new int[0];
+        flush(current);
+        EXECUTOR.execute(() -> {
+            FileChannel open = channel;
+            channel = null;
+            if (open == null) return;
+            try {
+                open.close();
+
+                // Log.
+                LOGGER.info("BSCFSIO: Recording saved to {}. ({} clicks)", file, recorded);
+            } catch (Throwable t) {
+                // Log.
+                LOGGER.error("BSCFSIO: Unable to close recording. (path: {})", file, t);
+            }
+        });
+        return file;
+    }
+
+    /**
+     * Stops the recording, if any, and waits for the file to be written. Must be called only from the client thread
+     * on shutdown, the recorder can't be used after the call.
+     */
+    static void close() {
+        // Stop and wait.
+        stop();
+        EXECUTOR.shutdown();
+        try {
+            if (EXECUTOR.awaitTermination(5L, TimeUnit.SECONDS)) return;
+
+            // Log.
+            LOGGER.warn("BSCFSIO: Recording has not been written in time.");
+        } catch (InterruptedException ignored) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Records the handled click, if recording. Must be called only from the client thread.
+     *
+     * @param container Container ID
+     * @param slot      Clicked slot index
+     * @param slots     Number of the slots in the menu
+     * @param button    Button ID
+     * @param click     Click type {@link ClickType#ordinal()}
+     * @param item      Item registry raw ID of the clicked slot, {@code -1} if none
+     * @param verdict   Click verdict, {@link BDecision#PASS} or {@link BDecision#BLOCK}
+     */
+    public static void click(int container, int slot, int slots, int button, int click, int item, int verdict) {
+        // Skip if not recording.
+        ByteBuffer current = buffer;
+        if (current == null) return;
+
+        // Write the palette entry, if new.
+        int index = -1;
+        if (item >= 0) {
+            if (item >= palette.length) {
+                palette = Arrays.copyOf(palette, Math.max(item + 1, palette.length * 2));
+            }
+            index = palette[item] - 1;
+            if (index < 0) {
+                index = paletteSize++;
+                palette[item] = index + 1;
+                byte[] id = BuiltInRegistries.ITEM.getKey(BuiltInRegistries.ITEM.byId(item)).toString().getBytes(StandardCharsets.UTF_8);
+                current = ensure(current, 1 + 2 + 2 + id.length);
+                current.put(ITEM);
+                current.putShort((short) index);
+                current.putShort((short) id.length);
+                current.put(id);
+            }
+        }
+
+        // Write the click.
+        current = ensure(current, CLICK_SIZE);
+        current.put(CLICK);
+        current.putLong(System.nanoTime() - started);
+        current.putInt(container);
+        current.putShort((short) slot);
+        current.putShort((short) slots);
+        current.putShort((short) button);
+        current.put((byte) click);
+        current.putShort((short) index);
+        current.put((byte) verdict);
+        clicks++;
+    }
+
+    /**
+     * Ensures the buffer has enough space for the record, handing the full buffer off to the writer if needed.
+     *
+     * @param current Current buffer
+     * @param size    Record size in bytes, must be less than {@link #BUFFER}
+     * @return Buffer to write the record into
+     */
+    private static ByteBuffer ensure(ByteBuffer current, int size) {
+        // Skip if fits.
+        if (current.remaining() >= size) return current;
+
+        // Hand off and replace.
+        flush(current);
+        ByteBuffer created = ByteBuffer.allocate(BUFFER);
+        buffer = created;
+        return created;
+    }
+
+    /**
+     * Writes the buffer to the file in background. The buffer must not be used after the call.
+     *
+     * @param full Buffer to write
+     */
+    private static void flush(ByteBuffer full) {
+        full.flip();
+        EXECUTOR.execute(() -> {
+            FileChannel open = channel;
+            if (open == null) return;
+            try {
+                while (full.hasRemaining()) {
+                    open.write(full);
+                }
+            } catch (Throwable t) {
+                // Log.
+                LOGGER.error("BSCFSIO: Unable to write recording.", t);
+            }
+        });
+    }
+}
@@ -0,0 +1,286 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024-2025 VidTu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.vidtu.bscfsio;
+
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.NbtUtils;
+import net.minecraft.nbt.TagParser;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.item.enchantment.Enchantment;
+import net.minecraft.world.item.enchantment.EnchantmentHelper;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.CheckReturnValue;
+import org.jetbrains.annotations.Contract;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Single compiled protection rule. Rules are written as {@code <item> [predicate...]}, where {@code <item>}
+ * is an item ID or {@code *} for any item and predicates are (all must match):
+ * <ul>
+ *     <li>{@code count=N}, {@code count>=N}, {@code count<=N}, {@code count>N}, {@code count<N} - stack count</li>
+ *     <li>{@code enchantment=<id>} - stack has the enchantment of any level</li>
+ *     <li>{@code name=<text>} or {@code name="<text with spaces>"} - stack has exactly this custom name</li>
+ *     <li>{@code nbt=<SNBT>} - stack tag contains the SNBT compound, consumes the rest of the rule</li>
+ * </ul>
+ * Example: {@code netherite_sword enchantment=mending}, {@code * name=KEEP}, {@code enchanted_golden_apple count>=8}.
+ *
+ * @author VidTu
+ * @see BRules
+ */
+@ApiStatus.Internal
+@NullMarked
+final class BRule {
+    /**
+     * Item this rule applies to, {@code null} if any.
+     */
+    @Nullable
+    private final Item item;
+
+    /**
+     * Minimum stack count, inclusive.
+     */
+    private final int minCount;
+
+    /**
+     * Maximum stack count, inclusive.
+     */
+    private final int maxCount;
+
+    /**
+     * Required enchantment, {@code null} if none.
+     */
+    @Nullable
+    private final Enchantment enchantment;
+
+    /**
+     * Required custom name, {@code null} if none.
+     */
+    @Nullable
+    private final String name;
+
+    /**
+     * Required partial NBT, {@code null} if none.
+     */
+    @Nullable
+    private final CompoundTag nbt;
+
+    /**
+     * Creates a new rule.
+     *
+     * @param item        Item this rule applies to, {@code null} if any
+     * @param minCount    Minimum stack count, inclusive
+     * @param maxCount    Maximum stack count, inclusive
+     * @param enchantment Required enchantment, {@code null} if none
+     * @param name        Required custom name, {@code null} if none
+     * @param nbt         Required partial NBT, {@code null} if none
+     */
+    @Contract(pure = true)
+    private BRule(@Nullable Item item, int minCount, int maxCount, @Nullable Enchantment enchantment,
+                  @Nullable String name, @Nullable CompoundTag nbt) {
+        this.item = item;
+        this.minCount = minCount;
+        this.maxCount = maxCount;
+        this.enchantment = enchantment;
+        this.name = name;
+        this.nbt = nbt;
+    }
+
+    /**
+     * Gets the item.
+     *
+     * @return Item this rule applies to, {@code null} if any
+     */
+    @Contract(pure = true)
+    @Nullable
+    Item item() {
+        return this.item;
+    }
+
+    /**
+     * Tests the stack against this rule. Doesn't check the {@link #item()}, cheap checks are done first.
+     *
+     * @param stack Stack to test
+     * @return Whether all predicates of this rule match the stack
+     */
+    @Contract(pure = true)
+    boolean test(ItemStack stack) {
+        // Check the count.
+        int count = stack.getCount();
+        if ((count < this.minCount) || (count > this.maxCount)) return false;
+
+        // Check the name.
+        if ((this.name != null) && (!stack.hasCustomName() || !this.name.equals(stack.getHoverName().getString()))) return false;
+
+        // Check the enchantment.
+        if ((this.enchantment != null) && (EnchantmentHelper.getItemEnchantmentLevel(this.enchantment, stack) <= 0)) return false;
+
+        // Check the NBT.
+        return ((this.nbt == null) || NbtUtils.compareNbt(this.nbt, stack.getTag(), /*compareListTag=*/true));
+    }
+
+    @Contract(pure = true)
+    @Override
+    public String toString() {
+        return "BSCFSIO/BRule{" +
+                "item=" + this.item +
+                ", minCount=" + this.minCount +
+                ", maxCount=" + this.maxCount +
+                ", enchantment=" + this.enchantment +
+                ", name='" + this.name + '\'' +
+                ", nbt=" + this.nbt +
+                '}';
+    }
+
+    /**
+     * Parses the rule.
+     *
+     * @param rule Rule to parse
+     * @return Parsed rule
+     * @throws IllegalArgumentException If the rule is invalid or references unknown item or enchantment
+     */
+    @CheckReturnValue
+    static BRule parse(String rule) {
+        // Parse the item.
+        int length = rule.length();
+        int index = skip(rule, 0);
+        int end = token(rule, index);
+        String itemId = rule.substring(index, end);
+        Item item;
+        if ("*".equals(itemId)) {
+            item = null;
+        } else {
+            ResourceLocation location = ResourceLocation.tryParse(itemId);
+            item = (location != null) ? BuiltInRegistries.ITEM.get(location) : Items.AIR;
+            if (item == Items.AIR) {
+                throw new IllegalArgumentException("Unknown item: " + itemId);
+            }
+        }
+
+        // Parse the predicates.
+        int minCount = Integer.MIN_VALUE;
+        int maxCount = Integer.MAX_VALUE;
+        Enchantment enchantment = null;
+        String name = null;
+        CompoundTag nbt = null;
+        for (index = skip(rule, end); index < length; index = skip(rule, end)) {
+            // NBT consumes the rest.
+            if (rule.startsWith("nbt=", index)) {
+                String snbt = rule.substring(index + 4);
+                try {
+                    nbt = TagParser.parseTag(snbt);
+                } catch (CommandSyntaxException e) {
+                    throw new IllegalArgumentException("Invalid NBT: " + snbt, e);
+                }
+                break;
+            }
+
+            // Name might be quoted.
+            if (rule.startsWith("name=", index)) {
+                index += 5;
+                if ((index < length) && (rule.charAt(index) == '"')) {
+                    end = rule.indexOf('"', index + 1);
+                    if (end == -1) {
+                        throw new IllegalArgumentException("Unterminated name: " + rule.substring(index));
+                    }
+                    name = rule.substring(index + 1, end);
+                    end++;
+                } else {
+                    end = token(rule, index);
+                    name = rule.substring(index, end);
+                }
+                continue;
+            }
+
+            // Parse other predicates.
+            end = token(rule, index);
+            String predicate = rule.substring(index, end);
+            try {
+                if (predicate.startsWith("count>=")) {
+                    minCount = Integer.parseInt(predicate.substring(7));
+                } else if (predicate.startsWith("count<=")) {
+                    maxCount = Integer.parseInt(predicate.substring(7));
+                } else if (predicate.startsWith("count>")) {
+                    minCount = Math.addExact(Integer.parseInt(predicate.substring(6)), 1);
+                } else if (predicate.startsWith("count<")) {
+                    maxCount = Math.subtractExact(Integer.parseInt(predicate.substring(6)), 1);
+                } else if (predicate.startsWith("count=")) {
+                    minCount = maxCount = Integer.parseInt(predicate.substring(6));
+                } else if (predicate.startsWith("enchantment=")) {
+                    String enchantmentId = predicate.substring(12);
+                    ResourceLocation location = ResourceLocation.tryParse(enchantmentId);
+                    enchantment = (location != null) ? BuiltInRegistries.ENCHANTMENT.get(location) : null;
+                    if (enchantment == null) {
+                        throw new IllegalArgumentException("Unknown enchantment: " + enchantmentId);
+                    }
+                } else {
+                    throw new IllegalArgumentException("Unknown predicate: " + predicate);
+                }
+            } catch (ArithmeticException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid count: " + predicate, e);
+            }
+        }
+
+        // Create.
+        return new BRule(item, minCount, maxCount, enchantment, name, nbt);
+    }
+
+    /**
+     * Skips the whitespace.
+     *
+     * @param rule  Rule string
+     * @param index Start index
+     * @return Index of the first non-whitespace character, length of the string if none
+     */
+    @Contract(pure = true)
+    private static int skip(String rule, int index) {
+        int length = rule.length();
+        while ((index < length) && Character.isWhitespace(rule.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Finds the token end.
+     *
+     * @param rule  Rule string
+     * @param index Token start index
+     * @return Index of the first whitespace character after the token, length of the string if none
+     */
+    @Contract(pure = true)
+    private static int token(String rule, int index) {
+        int length = rule.length();
+        while ((index < length) && !Character.isWhitespace(rule.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+}
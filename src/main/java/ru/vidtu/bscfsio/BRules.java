@@ -0,0 +1,256 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024-2025 VidTu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.vidtu.bscfsio;
+
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.CheckReturnValue;
+import org.jetbrains.annotations.Contract;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compiled set of {@link BRule}. Rules are grouped by the item registry raw ID, so only the rules
+ * for the stack's item (and the rules for any item) are ever checked. Verdicts are cached
+ * per {@link ItemStack} identity and invalidated if the stack's count or {@link BTagVersion} change,
+ * so in-place tag edits (e.g. renaming or enchanting) are caught without walking the tag.
+ * The verdict cache is not thread-safe, the {@link #test(ItemStack, int)} method must be called only from the client thread.
+ *
+ * @author VidTu
+ * @see BRule
+ * @see #compile(Iterable)
+ */
+@ApiStatus.Internal
+@NullMarked
+public final class BRules {
+    /**
+     * Logger for this class.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger("BSCFSIO/BRules");
+
+    /**
+     * Rules that match nothing.
+     */
+    public static final BRules EMPTY = new BRules(new BRule[0][], new BRule[0], 0);
+
+    /**
+     * Size of the verdict cache, must be a power of two.
+     */
+    private static final int CACHE_SIZE = 64;
+
+    /**
+     * Rules indexed by the item registry raw ID, {@code null} elements if none.
+     */
+    private final BRule[] @Nullable [] byItem;
+
+    /**
+     * Rules for any item.
+     */
+    private final BRule[] any;
+
+    /**
+     * Total number of the rules.
+     */
+    private final int size;
+
+    /**
+     * Cached stacks, {@code null} elements if none.
+     */
+    private final @Nullable ItemStack[] cacheStacks = new ItemStack[CACHE_SIZE];
+
+    /**
+     * Tag versions of the cached stacks at the caching time.
+     */
+    private final int[] cacheVersions = new int[CACHE_SIZE];
+
+    /**
+     * Counts of the cached stacks at the caching time.
+     */
+    private final int[] cacheCounts = new int[CACHE_SIZE];
+
+    /**
+     * Cached verdicts.
+     */
+    private final boolean[] cacheVerdicts = new boolean[CACHE_SIZE];
+
+    /**
+     * Creates new rules.
+     *
+     * @param byItem Rules indexed by the item registry raw ID, not copied
+     * @param any    Rules for any item, not copied
+     * @param size   Total number of the rules
+     */
+    @Contract(pure = true)
+    private BRules(BRule[] @Nullable [] byItem, BRule[] any, int size) {
+        this.byItem = byItem;
+        this.any = any;
+        this.size = size;
+    }
+
+    /**
+     * Gets whether there are any rules for the item.
+     *
+     * @param id Item registry raw ID
+     * @return Whether the rules should be tested for stacks of this item
+     */
+    @Contract(pure = true)
+    public boolean candidate(int id) {
+        return ((this.any.length != 0) || ((id >= 0) && (id < this.byItem.length) && (this.byItem[id] != null)));
+    }
+
+    /**
+     * Tests the stack against the rules. Must be called only from the client thread.
+     *
+     * @param stack Non-empty stack to test
+     * @param id    Item registry raw ID of the stack
+     * @return Whether any rule matches the stack
+     */
+    public boolean test(ItemStack stack, int id) {
+        // Skip if there are no rules for this item.
+        if (!this.candidate(id)) return false;
+
+        // Check the cache.
+        int bucket = (System.identityHashCode(stack) & (CACHE_SIZE - 1));
+        int version = BTagVersion.of(stack);
+        int count = stack.getCount();
+        if ((this.cacheStacks[bucket] == stack) && (this.cacheVersions[bucket] == version) && (this.cacheCounts[bucket] == count)) {
+            return this.cacheVerdicts[bucket];
+        }
+
+        // Evaluate and cache.
+        boolean verdict = this.testUncached(stack, id);
+        this.cacheStacks[bucket] = stack;
+        this.cacheVersions[bucket] = version;
+        this.cacheCounts[bucket] = count;
+        this.cacheVerdicts[bucket] = verdict;
+        return verdict;
+    }
+
+    /**
+     * Tests the stack against the rules without using the cache. Thread-safe.
+     *
+     * @param stack Non-empty stack to test
+     * @param id    Item registry raw ID of the stack
+     * @return Whether any rule matches the stack
+     */
+    @Contract(pure = true)
+    public boolean testUncached(ItemStack stack, int id) {
+        // Test the item rules.
+        BRule[] rules = ((id >= 0) && (id < this.byItem.length)) ? this.byItem[id] : null;
+        if (rules != null) {
+            for (BRule rule : rules) {
+                if (rule.test(stack)) return true;
+            }
+        }
+
+        // Test the any item rules.
+        for (BRule rule : this.any) {
+            if (rule.test(stack)) return true;
+        }
+
+        // Not matched.
+        return false;
+    }
+
+    /**
+     * Gets the size.
+     *
+     * @return Total number of the rules
+     */
+    @Contract(pure = true)
+    public int size() {
+        return this.size;
+    }
+
+    @Contract(pure = true)
+    @Override
+    public String toString() {
+        return "BSCFSIO/BRules{" +
+                "size=" + this.size +
+                ", any=" + Arrays.toString(this.any) +
+                '}';
+    }
+
+    /**
+     * Compiles the rules against the current item registry. Invalid rules are logged and ignored.
+     *
+     * @param rules Rules to compile
+     * @return Compiled rules
+     * @see BRule#parse(String)
+     */
+    @CheckReturnValue
+    public static BRules compile(Iterable<@Nullable String> rules) {
+        // Parse all rules.
+        List<BRule> any = new ArrayList<>(0);
+        BRule[] @Nullable [] byItem = new BRule[BuiltInRegistries.ITEM.size()][];
+        int size = 0;
+        for (String rule : rules) {
+            // Skip null rules.
+            if (rule == null) continue;
+
+            // Parse, skip invalid.
+            BRule parsed;
+            try {
+                parsed = BRule.parse(rule);
+            } catch (IllegalArgumentException e) {
+                LOGGER.warn("BSCFSIO: Ignoring invalid rule. (rule: {})", rule, e);
+                continue;
+            }
+
+            // Add to any item rules.
+            Item item = parsed.item();
+            size++;
+            if (item == null) {
+                any.add(parsed);
+                continue;
+            }
+
+            // Add to item rules.
+            int id = BuiltInRegistries.ITEM.getId(item);
+            if (id >= byItem.length) {
+                byItem = Arrays.copyOf(byItem, id + 1);
+            }
+            BRule[] existing = byItem[id];
+            if (existing == null) {
+                byItem[id] = new BRule[]{parsed};
+            } else {
+                BRule[] extended = Arrays.copyOf(existing, existing.length + 1);
+                extended[existing.length] = parsed;
+                byItem[id] = extended;
+            }
+        }
+
+        // Create.
+        return ((size == 0) ? EMPTY : new BRules(byItem, any.toArray(new BRule[0]), size));
+    }
+}
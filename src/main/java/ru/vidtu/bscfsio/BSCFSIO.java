@@ -25,21 +25,38 @@
 package ru.vidtu.bscfsio;
 
 import net.fabricmc.api.ClientModInitializer;
+import net.fabricmc.fabric.api.client.command.v2.ClientCommandRegistrationCallback;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientLifecycleEvents;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
 import net.fabricmc.fabric.api.client.keybinding.v1.KeyBindingHelper;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
+import net.fabricmc.fabric.api.client.rendering.v1.HudRenderCallback;
+import net.fabricmc.fabric.api.client.screen.v1.ScreenEvents;
+import net.fabricmc.fabric.api.client.screen.v1.ScreenKeyboardEvents;
+import net.fabricmc.fabric.api.client.screen.v1.Screens;
+import net.fabricmc.loader.api.FabricLoader;
+import net.fabricmc.loader.api.entrypoint.EntrypointContainer;
 import net.minecraft.ChatFormatting;
 import net.minecraft.client.KeyMapping;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ServerData;
 import net.minecraft.client.resources.sounds.SimpleSoundInstance;
 import net.minecraft.network.chat.Component;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.sounds.SoundEvents;
+import net.minecraft.world.inventory.Slot;
+import net.minecraft.world.item.ItemStack;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Contract;
 import org.jspecify.annotations.NullMarked;
 import org.lwjgl.glfw.GLFW;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import ru.vidtu.bscfsio.api.BApiInitializer;
+import ru.vidtu.bscfsio.mixins.AbstractContainerScreenAccessor;
+
+import java.nio.file.Path;
 
 /**
  * Main BSCFSIO class.
@@ -64,6 +81,21 @@ public final class BSCFSIO implements ClientModInitializer {
      */
     private static final KeyMapping TOGGLE_BIND = new KeyMapping("bscfsio.key.toggle", GLFW.GLFW_KEY_UNKNOWN, "bscfsio.key.category");
 
+    /**
+     * Journal dump keybind. Not bound by default.
+     */
+    private static final KeyMapping JOURNAL_BIND = new KeyMapping("bscfsio.key.journal", GLFW.GLFW_KEY_UNKNOWN, "bscfsio.key.category");
+
+    /**
+     * Protect hovered item keybind. Not bound by default.
+     */
+    private static final KeyMapping PROTECT_BIND = new KeyMapping("bscfsio.key.protect", GLFW.GLFW_KEY_UNKNOWN, "bscfsio.key.category");
+
+    /**
+     * Whether to dump the journal on shutdown, {@code false} by default.
+     */
+    private static final boolean DUMP_JOURNAL_ON_EXIT = Boolean.getBoolean("bscfsio.journal.dumpOnExit");
+
     /**
      * Creates a new mod.
      */
@@ -78,13 +110,70 @@ public final class BSCFSIO implements ClientModInitializer {
         long start = System.nanoTime();
         LOGGER.info("BSCFSIO: Loading...");
 
-        // Load the config.
+        // Start loading the config in background.
         BConfig.init();
+        long config = System.nanoTime();
+
+        // Provide the API.
+        for (EntrypointContainer<BApiInitializer> container : FabricLoader.getInstance().getEntrypointContainers("bscfsio", BApiInitializer.class)) {
+            try {
+                container.getEntrypoint().onBSCFSIOApi(BApiImpl.INSTANCE);
+            } catch (Throwable t) {
+                // Log.
+                LOGGER.error("BSCFSIO: Unable to provide the API. (mod: {})", container.getProvider().getMetadata().getId(), t);
+            }
+        }
+
+        // Flush the config and dump the journal (if requested) on shutdown.
+        long api = System.nanoTime();
+        ClientLifecycleEvents.CLIENT_STOPPING.register(client -> {
+            BConfig.flush();
+            BRecorder.close();
+            if (!DUMP_JOURNAL_ON_EXIT || BJournal.isEmpty()) return;
+            BJournal.dump(/*sync=*/true);
+        });
+
+        // Finish loading the config once started, log the config timings.
+        ClientLifecycleEvents.CLIENT_STARTED.register(client -> {
+            long awaitStart = System.nanoTime();
+            BConfig.await();
+            long awaitEnd = System.nanoTime();
+            long[] timings = BConfig.timings();
+            if (timings == null) {
+                LOGGER.info("BSCFSIO: Config ready, not preloaded. (register: {} us)", (awaitEnd - awaitStart) / 1000L);
+                return;
+            }
+            LOGGER.info("BSCFSIO: Config ready. (read: {} us, parse: {} us, validate: {} us, register: {} us)",
+                    timings[0] / 1000L, timings[1] / 1000L, timings[2] / 1000L, (awaitEnd - awaitStart) / 1000L);
+        });
+
+        // Register the command and the stats HUD line.
+        ClientCommandRegistrationCallback.EVENT.register(BCommand::register);
+        HudRenderCallback.EVENT.register((graphics, tickDelta) -> {
+            // Skip if disabled or hidden.
+            Minecraft client = Minecraft.getInstance();
+            if (!BConfig.snapshot().statsHud() || client.options.hideGui) return;
+
+            // Render.
+            graphics.drawString(client.font, BStats.hud(), 2, 2, 0xFF_FF_FF_FF);
+        });
+
+        // Add the item picker button to the config screen.
+        ScreenEvents.AFTER_INIT.register((client, screen, width, height) -> BPickerScreen.addButton(screen, Screens.getButtons(screen)));
+
+        // Select the server profile on join, drop it on leave.
+        ClientPlayConnectionEvents.JOIN.register((handler, sender, client) -> {
+            ServerData server = handler.getServerData();
+            BProfiles.select((server != null) ? server.ip : null);
+        });
+        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> BProfiles.select(/*address=*/null));
 
         // Register the network.
+        long network = System.nanoTime();
         ClientPlayNetworking.registerGlobalReceiver(new ResourceLocation("bscfsio", "imhere"), (client, handler, buf, responseSender) -> handler.getConnection().disconnect(Component.translatable("bscfsio.false")));
 
         // Register the config bind.
+        long keybinds = System.nanoTime();
         KeyBindingHelper.registerKeyBinding(CONFIG_BIND);
         ClientTickEvents.END_CLIENT_TICK.register(client -> {
             // Don't do anything if didn't click yet or if there's an open screen.
@@ -110,7 +199,45 @@ public final class BSCFSIO implements ClientModInitializer {
             client.getSoundManager().play(SimpleSoundInstance.forUI(SoundEvents.NOTE_BLOCK_PLING, newState ? 2.0F : 0.0F));
         });
 
+        // Register the journal bind.
+        KeyBindingHelper.registerKeyBinding(JOURNAL_BIND);
+        ClientTickEvents.END_CLIENT_TICK.register(client -> {
+            // Don't do anything if didn't click yet.
+            if (!JOURNAL_BIND.consumeClick()) return;
+
+            // Dump the journal in background.
+            Path path = BJournal.dump(/*sync=*/false);
+
+            // Show the overlay.
+            client.gui.setOverlayMessage(Component.translatable("bscfsio.journal", path.getFileName().toString()), /*rainbow=*/false);
+        });
+
+        // Register the protect hovered item bind. It works in the container screens only.
+        KeyBindingHelper.registerKeyBinding(PROTECT_BIND);
+        ScreenEvents.AFTER_INIT.register((client, screen, width, height) -> {
+            // Skip non-container screens.
+            if (!(screen instanceof AbstractContainerScreenAccessor accessor)) return;
+
+            // Toggle the hovered item protection on press.
+            ScreenKeyboardEvents.afterKeyPress(screen).register((scr, key, scancode, modifiers) -> {
+                // Skip other keys and empty slots.
+                if (!PROTECT_BIND.matches(key, scancode)) return;
+                Slot slot = accessor.bscfsio_hoveredSlot();
+                if ((slot == null) || !slot.hasItem()) return;
+
+                // Toggle against the active item list and show the overlay.
+                ItemStack stack = slot.getItem();
+                boolean protect = !BConfig.snapshot().items().contains(stack.getItem());
+                String profile = BConfig.profile();
+                if (!BConfig.protect(stack.getItem(), protect)) return;
+                client.gui.setOverlayMessage(BCommand.feedback(stack.getHoverName(), protect, /*changed=*/true, profile), /*rainbow=*/false);
+                client.getSoundManager().play(SimpleSoundInstance.forUI(SoundEvents.NOTE_BLOCK_PLING, protect ? 2.0F : 0.0F));
+            });
+        });
+
         // Done.
-        LOGGER.info("BSCFSIO: Sometimes we somehow block somewhat resembling clicking inventory by someone. ({} ms)", (System.nanoTime() - start) / 1_000_000L);
+        long end = System.nanoTime();
+        LOGGER.info("BSCFSIO: Sometimes we somehow block somewhat resembling clicking inventory by someone. ({} ms; config: {} us, api: {} us, events: {} us, network: {} us, keybinds: {} us)",
+                (end - start) / 1_000_000L, (config - start) / 1000L, (api - config) / 1000L, (network - api) / 1000L, (keybinds - network) / 1000L, (end - keybinds) / 1000L);
     }
 }
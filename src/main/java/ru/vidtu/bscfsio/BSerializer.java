@@ -0,0 +1,260 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024-2025 VidTu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.vidtu.bscfsio;
+
+import com.google.gson.Gson;
+import me.shedaniel.autoconfig.annotation.Config;
+import me.shedaniel.autoconfig.serializer.ConfigSerializer;
+import me.shedaniel.autoconfig.serializer.GsonConfigSerializer;
+import net.fabricmc.loader.api.FabricLoader;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.CheckReturnValue;
+import org.jetbrains.annotations.Contract;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Config serializer that writes the config in background. Bursts of saves are merged into one write,
+ * the file is written to a temporary file and then atomically moved over the config file.
+ *
+ * @author VidTu
+ */
+@ApiStatus.Internal
+@NullMarked
+final class BSerializer implements ConfigSerializer<BConfig> {
+    /**
+     * Logger for this class.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger("BSCFSIO/BSerializer");
+
+    /**
+     * Delay in milliseconds to merge the saves within.
+     */
+    private static final long DELAY = 500L;
+
+    /**
+     * Background writer executor.
+     */
+    private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "BSCFSIO Config Writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Delegate serializer, used for reading.
+     */
+    private final GsonConfigSerializer<BConfig> delegate;
+
+    /**
+     * GSON instance to write the config with.
+     */
+    private final Gson gson;
+
+    /**
+     * Config file path.
+     */
+    private final Path path;
+
+    /**
+     * Temporary config file path.
+     */
+    private final Path temp;
+
+    /**
+     * Config copy pending to be written, {@code null} if none.
+     */
+    private final AtomicReference<@Nullable BConfig> pending = new AtomicReference<>();
+
+    /**
+     * Last written config file contents, {@code null} if none.
+     */
+    private volatile byte @Nullable [] lastWritten;
+
+    /**
+     * Config preloaded in background to be returned by the next {@link #deserialize()}, {@code null} if none.
+     */
+    private final AtomicReference<@Nullable BConfig> preloaded = new AtomicReference<>();
+
+    /**
+     * Lock to serialize the writes.
+     */
+    private final Object lock = new Object();
+
+    /**
+     * Creates a new serializer.
+     *
+     * @param definition  Config definition
+     * @param configClass Config class
+     * @param gson        GSON instance to read and write the config with
+     */
+    @Contract(pure = true)
+    BSerializer(Config definition, Class<BConfig> configClass, Gson gson) {
+        this.delegate = new GsonConfigSerializer<>(definition, configClass, gson);
+        this.gson = gson;
+        this.path = FabricLoader.getInstance().getConfigDir().resolve(definition.name() + ".json");
+        this.temp = this.path.resolveSibling(definition.name() + ".json.tmp");
+    }
+
+    /**
+     * Schedules the config write. Only a copy of the config is written, so it can be modified right after this call.
+     *
+     * @param config Config to write
+     */
+    @Override
+    public void serialize(BConfig config) {
+        // Log. (**DEBUG**)
+        LOGGER.debug("BSCFSIO: Scheduling config save... (config: {})", config);
+
+        // Replace the pending copy. Schedule the write only if there was none, otherwise it's merged.
+        if (this.pending.getAndSet(config.copy()) != null) return;
+        EXECUTOR.schedule(this::write, DELAY, TimeUnit.MILLISECONDS);
+    }
+
+    @CheckReturnValue
+    @Override
+    public BConfig deserialize() throws SerializationException {
+        // Use the preloaded config once, if any.
+        BConfig config = this.preloaded.getAndSet(null);
+        return ((config != null) ? config : this.delegate.deserialize());
+    }
+
+    @CheckReturnValue
+    @Override
+    public BConfig createDefault() {
+        return this.delegate.createDefault();
+    }
+
+    /**
+     * Sets the config to be returned by the next {@link #deserialize()} instead of reading the file.
+     *
+     * @param config Config preloaded in background
+     */
+    void preload(BConfig config) {
+        this.preloaded.set(config);
+    }
+
+    /**
+     * Gets the path.
+     *
+     * @return Config file path
+     */
+    @Contract(pure = true)
+    Path path() {
+        return this.path;
+    }
+
+    /**
+     * Checks whether the data has been written by this serializer the last.
+     *
+     * @param data Config file contents
+     * @return Whether the contents equal to the last written contents
+     */
+    @Contract(pure = true)
+    boolean isLastWritten(byte[] data) {
+        return Arrays.equals(this.lastWritten, data);
+    }
+
+    /**
+     * Writes the pending config, if any, on the current thread.
+     *
+     * @see #serialize(BConfig)
+     */
+    void flush() {
+        // Log. (**DEBUG**)
+        LOGGER.debug("BSCFSIO: Flushing config...");
+
+        // Write.
+        this.write();
+    }
+
+    /**
+     * Writes the pending config, if any.
+     */
+    private void write() {
+        synchronized (this.lock) {
+            // Take the pending config. Skip if already written.
+            BConfig config = this.pending.getAndSet(null);
+            if (config == null) return;
+
+            // Log. (**DEBUG**)
+            long start = System.nanoTime();
+            LOGGER.debug("BSCFSIO: Writing config... (config: {}, path: {})", config, this.path);
+            BConfigEvent event = new BConfigEvent();
+            event.begin();
+
+            try {
+                // Write the temporary file and force it to the disk, so the move never survives a power loss without the data.
+                byte[] json = this.gson.toJson(config).getBytes(StandardCharsets.UTF_8);
+                Files.createDirectories(this.path.getParent());
+                try (FileChannel channel = FileChannel.open(this.temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                    ByteBuffer buffer = ByteBuffer.wrap(json);
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    channel.force(/*metaData=*/true);
+                }
+                this.lastWritten = json;
+
+                // Move it over the config file.
+                try {
+                    Files.move(this.temp, this.path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException ignored) {
+                    Files.move(this.temp, this.path, StandardCopyOption.REPLACE_EXISTING);
+                }
+
+                // Log. (**DEBUG**)
+                BStats.save();
+                if (event.shouldCommit()) {
+                    event.action = "save";
+                    event.bytes = json.length;
+                    event.commit();
+                }
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("BSCFSIO: Config written. (config: {}, path: {}, time: {} ms)", config, this.path, (System.nanoTime() - start) / 1_000_000L);
+                }
+            } catch (Throwable t) {
+                // Log.
+                LOGGER.error("BSCFSIO: Unable to write config. (config: {}, path: {})", config, this.path, t);
+            }
+        }
+    }
+}
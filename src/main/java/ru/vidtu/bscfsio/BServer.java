@@ -0,0 +1,193 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024-2025 VidTu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.vidtu.bscfsio;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.ModInitializer;
+import net.fabricmc.fabric.api.event.lifecycle.v1.CommonLifecycleEvents;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.world.entity.player.Inventory;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.inventory.AbstractContainerMenu;
+import net.minecraft.world.inventory.ClickType;
+import net.minecraft.world.inventory.Slot;
+import net.minecraft.world.item.ItemStack;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Contract;
+import org.jspecify.annotations.NullMarked;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Server-side BSCFSIO enforcement. Rejects the container clicks that move protected stacks in the server's
+ * click handling, so the protection works for the players without the mod and against the clicks sent bypassing
+ * the client check. Only the dedicated server enforces, and only if {@code serverEnforce} is set in the config file.
+ * The integrated server enforces nothing, the client's personal config must not apply to the other players,
+ * the host is already covered by the client check.
+ *
+ * @author VidTu
+ */
+@ApiStatus.Internal
+@NullMarked
+public final class BServer implements ModInitializer {
+    /**
+     * Logger for this class.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger("BSCFSIO/BServer");
+
+    /**
+     * Dedicated server config snapshot, {@link BSnapshot#DISABLED} if on the client or not enforced.
+     */
+    private static volatile BSnapshot dedicated = BSnapshot.DISABLED;
+
+    /**
+     * Creates a new server mod.
+     */
+    @Contract(pure = true)
+    public BServer() {
+        // Empty
+    }
+
+    @Override
+    public void onInitialize() {
+        // Skip on the client, the integrated server enforces nothing.
+        if (FabricLoader.getInstance().getEnvironmentType() != EnvType.SERVER) return;
+
+        // Log.
+        long start = System.nanoTime();
+        LOGGER.info("BSCFSIO: Loading server enforcement...");
+
+        // Load the config. Nothing is enforced if it can't be loaded.
+        Path path = FabricLoader.getInstance().getConfigDir().resolve("bscfsio.json");
+        Gson gson = new GsonBuilder()
+                .setLenient()
+                .create();
+        load(path, gson);
+
+        // Reload on server tags load to expand the item tags. (e.g. on datapack reload)
+        CommonLifecycleEvents.TAGS_LOADED.register((registries, client) -> {
+            if (client) return;
+            load(path, gson);
+        });
+
+        // Done.
+        LOGGER.info("BSCFSIO: Server enforcement loaded. ({} ms)", (System.nanoTime() - start) / 1_000_000L);
+    }
+
+    /**
+     * Gets whether the container click should be rejected. Thread-safe.
+     *
+     * @param menu   Clicked menu
+     * @param slot   Clicked slot index
+     * @param button Button ID
+     * @param click  Click type
+     * @param player Player clicked the slot
+     * @return Whether the click moves any protected stack
+     */
+    public static boolean isBlocked(AbstractContainerMenu menu, int slot, int button, ClickType click, Player player) {
+        // Skip if the click type is not handled.
+        BSnapshot snapshot = dedicated;
+        BPolicy policy = BDecision.policy(snapshot, click.ordinal());
+        if (policy == BPolicy.IGNORE) return false;
+
+        // Decide.
+        List<Slot> slots = menu.slots;
+        boolean inBounds = ((slot >= 0) && (slot < slots.size()));
+        return switch (policy) {
+            case IGNORE -> false;
+            case SLOT -> inBounds && snapshot.isMovingProhibitedUncached(slots.get(slot).getItem());
+            case SWAP -> {
+                if (!inBounds) yield false;
+                Inventory inventory = player.getInventory();
+                yield (snapshot.isMovingProhibitedUncached(slots.get(slot).getItem()) || ((button >= 0) &&
+                        (button < inventory.getContainerSize()) && snapshot.isMovingProhibitedUncached(inventory.getItem(button))));
+            }
+            case GATHER -> inBounds && gathers(snapshot, slots, menu.getCarried());
+            case DRAG -> snapshot.isMovingProhibitedUncached(menu.getCarried());
+        };
+    }
+
+    /**
+     * Gets whether any protected stack would be gathered to the carried stack.
+     *
+     * @param snapshot Current config snapshot
+     * @param slots    Menu slots
+     * @param carried  Carried stack
+     * @return Whether any protected stack would be gathered
+     */
+    private static boolean gathers(BSnapshot snapshot, List<Slot> slots, ItemStack carried) {
+        // Skip if nothing is carried.
+        if (carried.isEmpty()) return false;
+
+        // Check all stacks that would be gathered.
+        for (Slot slot : slots) {
+            ItemStack stack = slot.getItem();
+            if (!ItemStack.isSameItemSameTags(stack, carried) || !snapshot.isMovingProhibitedUncached(stack)) continue;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Loads and compiles the dedicated server config. Uses the defaults (nothing enforced) if the file doesn't exist.
+     * Keeps the previous snapshot if the file can't be loaded.
+     *
+     * @param path Config file path
+     * @param gson Gson to parse the config with
+     */
+    private static void load(Path path, Gson gson) {
+        try {
+            // Log. (**DEBUG**)
+            LOGGER.debug("BSCFSIO: Loading server config... (path: {})", path);
+
+            // Read and parse. Parsed as the side-neutral config, the client config class can't be loaded here.
+            String data = (Files.isRegularFile(path) ? Files.readString(path, StandardCharsets.UTF_8) : "{}");
+            BServerConfig config = gson.fromJson(data, BServerConfig.class);
+            if (config == null) {
+                config = gson.fromJson("{}", BServerConfig.class);
+            }
+
+            // Compile.
+            BSnapshot compiled = config.compile();
+            dedicated = compiled;
+
+            // Log.
+            if (!compiled.enabled()) {
+                LOGGER.info("BSCFSIO: Server enforcement is disabled, set 'serverEnforce' to true in the config to enable. (path: {})", path);
+            }
+            LOGGER.debug("BSCFSIO: Server config loaded. (path: {}, snapshot: {})", path, compiled);
+        } catch (Throwable t) {
+            // Log.
+            LOGGER.error("BSCFSIO: Unable to load server config. (path: {})", path, t);
+        }
+    }
+}
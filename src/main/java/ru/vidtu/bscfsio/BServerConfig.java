@@ -0,0 +1,151 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024-2025 VidTu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.vidtu.bscfsio;
+
+import com.google.common.collect.Lists;
+import net.minecraft.world.inventory.ClickType;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.CheckReturnValue;
+import org.jetbrains.annotations.Contract;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Side-neutral view of the {@link BConfig} file, parsed by the dedicated server. Contains only the fields
+ * used for the enforcement, so the server never loads the client-only {@link BConfig} class and its dependencies.
+ * Fields, names, and defaults must match the {@link BConfig}, except the server-only {@link #serverEnforce}.
+ *
+ * @author VidTu
+ * @see BServer
+ */
+@ApiStatus.Internal
+@NullMarked
+final class BServerConfig {
+    /**
+     * Whether to enforce the protection on the dedicated server, {@code false} by default.
+     * Server-only, the enforcement is opt-in, so installing the mod doesn't block anything for the players.
+     */
+    private boolean serverEnforce;
+
+    /**
+     * Whether to enable the mod, {@code true} by default.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Whether to block shift-clicking ({@link ClickType#QUICK_MOVE}) protected items, {@code true} by default.
+     */
+    private boolean quickMove = true;
+
+    /**
+     * Whether to block number key and offhand swapping ({@link ClickType#SWAP}) protected items, {@code false} by default.
+     */
+    private boolean swap;
+
+    /**
+     * Whether to block throwing ({@link ClickType#THROW}) protected items from slots, {@code false} by default.
+     */
+    private boolean throwing;
+
+    /**
+     * Whether to block double-click gathering ({@link ClickType#PICKUP_ALL}) of protected items, {@code false} by default.
+     */
+    private boolean pickupAll;
+
+    /**
+     * Whether to block drag-splitting ({@link ClickType#QUICK_CRAFT}) protected items, {@code false} by default.
+     */
+    private boolean quickCraft;
+
+    /**
+     * List of item IDs, {@code #namespace:path} item tags, and item ID patterns to prohibit moving, {@code ["totem_of_undying"]} by default.
+     */
+    private List<@Nullable String> items = Lists.newArrayList("totem_of_undying");
+
+    /**
+     * List of rules to prohibit moving matching stacks, empty by default.
+     */
+    private List<@Nullable String> rules = Lists.newArrayList();
+
+    /**
+     * Creates a new config with the default values. Used by GSON.
+     */
+    @Contract(pure = true)
+    private BServerConfig() {
+        // Private
+    }
+
+    /**
+     * Compiles the config snapshot. Null, blank, and invalid items and rules are ignored.
+     * Sounds and visuals are always disabled, they are never used on the server.
+     * The snapshot is disabled unless {@link #serverEnforce} is set.
+     *
+     * @return Compiled snapshot
+     */
+    @CheckReturnValue
+    BSnapshot compile() {
+        BPolicy[] policies = BPolicy.compile(this.quickMove, this.swap, this.throwing, this.pickupAll, this.quickCraft);
+        BMatcher matcher = BMatcher.compile(clean(this.items));
+        BRules ruleSet = BRules.compile(clean(this.rules));
+        return new BSnapshot(this.serverEnforce && this.enabled, policies, false, 0L, 1, 0L, 0, false, false, matcher, ruleSet);
+    }
+
+    /**
+     * Removes null, blank, and duplicate strings.
+     *
+     * @param list List to clean, {@code null} if missing in the file
+     * @return A new cleaned list
+     */
+    @CheckReturnValue
+    private static List<String> clean(@Nullable List<@Nullable String> list) {
+        if (list == null) return List.of();
+        return list.stream()
+                .filter(Objects::nonNull)
+                .map(String::strip)
+                .filter(Predicate.not(String::isBlank))
+                .distinct()
+                .toList();
+    }
+
+    @Contract(pure = true)
+    @Override
+    public String toString() {
+        return "BSCFSIO/BServerConfig{" +
+                "serverEnforce=" + this.serverEnforce +
+                ", enabled=" + this.enabled +
+                ", quickMove=" + this.quickMove +
+                ", swap=" + this.swap +
+                ", throwing=" + this.throwing +
+                ", pickupAll=" + this.pickupAll +
+                ", quickCraft=" + this.quickCraft +
+                ", items=" + this.items +
+                ", rules=" + this.rules +
+                '}';
+    }
+}
@@ -0,0 +1,299 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024-2025 VidTu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.vidtu.bscfsio;
+
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.world.inventory.ClickType;
+import net.minecraft.world.item.ItemStack;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Contract;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Immutable compiled snapshot of the {@link BConfig}. Used by the hot paths to read the whole config
+ * state with a single field load and always see a consistent state.
+ *
+ * @author VidTu
+ * @see BConfig#snapshot()
+ */
+@ApiStatus.Internal
+@NullMarked
+public final class BSnapshot {
+    /**
+     * Snapshot with everything disabled, used before the config is loaded.
+     */
+    static final BSnapshot DISABLED = new BSnapshot(false, new BPolicy[ClickType.values().length], false, 0L, 1, 0L, 0, false, false, BMatcher.EMPTY, BRules.EMPTY);
+
+    /**
+     * Whether to enable the mod.
+     */
+    private final boolean enabled;
+
+    /**
+     * Click policies indexed by {@link ClickType#ordinal()}, {@code null} elements are treated as {@link BPolicy#IGNORE}.
+     */
+    private final @Nullable BPolicy[] policies;
+
+    /**
+     * Whether to use a special sound when item movement is prohibited.
+     */
+    private final boolean sound;
+
+    /**
+     * Time in nanoseconds after a played sound to merge the following sounds into it.
+     */
+    private final long soundWindow;
+
+    /**
+     * Maximum number of the sounds played per second.
+     */
+    private final int soundRate;
+
+    /**
+     * Time in nanoseconds to display visual overlay when item movement is prohibited, {@code 0} if disabled.
+     */
+    private final long visual;
+
+    /**
+     * ARGB color of visual overlay.
+     */
+    private final int visualColor;
+
+    /**
+     * Whether to always mark the protected slots with the visual overlay color.
+     */
+    private final boolean lockIndicator;
+
+    /**
+     * Whether to show the stats HUD line.
+     */
+    private final boolean statsHud;
+
+    /**
+     * Compiled matcher of items to prohibit moving.
+     */
+    private final BMatcher items;
+
+    /**
+     * Compiled rules of stacks to prohibit moving.
+     */
+    private final BRules rules;
+
+    /**
+     * Creates a new snapshot.
+     *
+     * @param enabled       Whether to enable the mod
+     * @param policies      Click policies indexed by {@link ClickType#ordinal()}, not copied
+     * @param sound         Whether to use a special sound when item movement is prohibited
+     * @param soundWindow   Time in milliseconds after a played sound to merge the following sounds into it
+     * @param soundRate     Maximum number of the sounds played per second
+     * @param visual        Time in milliseconds to display visual overlay when item movement is prohibited, {@code 0} if disabled
+     * @param visualColor   ARGB color of visual overlay
+     * @param lockIndicator Whether to always mark the protected slots with the visual overlay color
+     * @param statsHud      Whether to show the stats HUD line
+     * @param items         Compiled matcher of items to prohibit moving
+     * @param rules         Compiled rules of stacks to prohibit moving
+     */
+    @Contract(pure = true)
+    BSnapshot(boolean enabled, @Nullable BPolicy[] policies, boolean sound, long soundWindow, int soundRate, long visual, int visualColor, boolean lockIndicator, boolean statsHud, BMatcher items, BRules rules) {
+        this.enabled = enabled;
+        this.policies = policies;
+        this.sound = sound;
+        this.soundWindow = Math.max(0L, soundWindow) * 1_000_000L;
+        this.soundRate = soundRate;
+        this.visual = Math.max(0L, visual) * 1_000_000L;
+        this.visualColor = visualColor;
+        this.lockIndicator = lockIndicator;
+        this.statsHud = statsHud;
+        this.items = items;
+        this.rules = rules;
+    }
+
+    /**
+     * Gets the enabled.
+     *
+     * @return Whether to enable the mod
+     */
+    @Contract(pure = true)
+    public boolean enabled() {
+        return this.enabled;
+    }
+
+    /**
+     * Gets the click policy.
+     *
+     * @param click Click type {@link ClickType#ordinal()}
+     * @return Policy of handling the click type
+     */
+    @Contract(pure = true)
+    public BPolicy policy(int click) {
+        BPolicy policy = this.policies[click];
+        return ((policy != null) ? policy : BPolicy.IGNORE);
+    }
+
+    /**
+     * Gets the sound.
+     *
+     * @return Whether to use a special sound when item movement is prohibited
+     */
+    @Contract(pure = true)
+    public boolean sound() {
+        return this.sound;
+    }
+
+    /**
+     * Gets the sound window.
+     *
+     * @return Time in nanoseconds after a played sound to merge the following sounds into it
+     */
+    @Contract(pure = true)
+    public long soundWindow() {
+        return this.soundWindow;
+    }
+
+    /**
+     * Gets the sound rate.
+     *
+     * @return Maximum number of the sounds played per second
+     */
+    @Contract(pure = true)
+    public int soundRate() {
+        return this.soundRate;
+    }
+
+    /**
+     * Gets the visual.
+     *
+     * @return Time in nanoseconds to display visual overlay when item movement is prohibited, {@code 0} if disabled
+     */
+    @Contract(pure = true)
+    public long visual() {
+        return this.visual;
+    }
+
+    /**
+     * Gets the visual color.
+     *
+     * @return ARGB color of visual overlay
+     */
+    @Contract(pure = true)
+    public int visualColor() {
+        return this.visualColor;
+    }
+
+    /**
+     * Gets the lock indicator.
+     *
+     * @return Whether to always mark the protected slots with the visual overlay color
+     */
+    @Contract(pure = true)
+    public boolean lockIndicator() {
+        return this.lockIndicator;
+    }
+
+    /**
+     * Gets the stats HUD.
+     *
+     * @return Whether to show the stats HUD line
+     */
+    @Contract(pure = true)
+    public boolean statsHud() {
+        return this.statsHud;
+    }
+
+    /**
+     * Gets the items.
+     *
+     * @return Compiled matcher of items to prohibit moving
+     */
+    @Contract(pure = true)
+    public BMatcher items() {
+        return this.items;
+    }
+
+    /**
+     * Gets the rules.
+     *
+     * @return Compiled rules of stacks to prohibit moving
+     */
+    @Contract(pure = true)
+    public BRules rules() {
+        return this.rules;
+    }
+
+    /**
+     * Gets whether the stack should be prohibited from moving. Must be called only from the client thread.
+     *
+     * @param stack Stack to check
+     * @return Whether the stack is not {@code null}, not empty, and should be prohibited from moving
+     * @see BRules#test(ItemStack, int)
+     */
+    public boolean isMovingProhibited(@Nullable ItemStack stack) {
+        // Skip empty stacks.
+        if ((stack == null) || stack.isEmpty()) return false;
+
+        // Check the items, then the rules.
+        int id = BuiltInRegistries.ITEM.getId(stack.getItem());
+        return (this.items.contains(id) || this.rules.test(stack, id));
+    }
+
+    /**
+     * Gets whether the stack should be prohibited from moving without using the rules cache. Thread-safe.
+     *
+     * @param stack Stack to check
+     * @return Whether the stack is not empty and should be prohibited from moving
+     * @see BRules#testUncached(ItemStack, int)
+     */
+    @Contract(pure = true)
+    public boolean isMovingProhibitedUncached(ItemStack stack) {
+        // Skip empty stacks.
+        if (stack.isEmpty()) return false;
+
+        // Check the items, then the rules.
+        int id = BuiltInRegistries.ITEM.getId(stack.getItem());
+        return (this.items.contains(id) || this.rules.testUncached(stack, id));
+    }
+
+    @Contract(pure = true)
+    @Override
+    public String toString() {
+        return "BSCFSIO/BSnapshot{" +
+                "enabled=" + this.enabled +
+                ", policies=" + Arrays.toString(this.policies) +
+                ", sound=" + this.sound +
+                ", soundWindow=" + this.soundWindow +
+                ", soundRate=" + this.soundRate +
+                ", visual=" + this.visual +
+                ", visualColor=" + this.visualColor +
+                ", lockIndicator=" + this.lockIndicator +
+                ", statsHud=" + this.statsHud +
+                ", items=" + this.items +
+                ", rules=" + this.rules +
+                '}';
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024-2025 VidTu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.vidtu.bscfsio;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.resources.sounds.SimpleSoundInstance;
+import net.minecraft.client.resources.sounds.SoundInstance;
+import net.minecraft.client.sounds.SoundManager;
+import net.minecraft.sounds.SoundEvents;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Contract;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Throttled feedback sound for the blocked clicks. Sounds requested within the merging window after the last played
+ * one are merged into it, sounds over the per-second rate limit are dropped. Sound instances are pooled and reused
+ * once they stop playing. Must be accessed only from the client thread.
+ *
+ * @author VidTu
+ */
+@ApiStatus.Internal
+@NullMarked
+public final class BSound {
+    /**
+     * One second in units of {@link System#nanoTime()}.
+     */
+    private static final long SECOND = 1_000_000_000L;
+
+    /**
+     * Pooled sound instances, {@code null} elements if not created yet.
+     */
+    private static final @Nullable SoundInstance[] POOL = new SoundInstance[4];
+
+    /**
+     * Time when the last sound was played. (in units of {@link System#nanoTime()})
+     */
+    private static long last = System.nanoTime() - SECOND;
+
+    /**
+     * Start time of the current rate limit second. (in units of {@link System#nanoTime()})
+     */
+    private static long second = System.nanoTime() - SECOND;
+
+    /**
+     * Number of the sounds played in the current rate limit second.
+     */
+    private static int secondPlayed;
+
+    /**
+     * Total number of the played sounds.
+     */
+    private static long played;
+
+    /**
+     * Total number of the merged or dropped sounds.
+     */
+    private static long suppressed;
+
+    /**
+     * An instance of this class cannot be created.
+     *
+     * @throws AssertionError Always
+     * @deprecated Always throws
+     */
+    @Deprecated(forRemoval = true)
+    @Contract(value = "-> fail", pure = true)
+    private BSound() {
+        throw new AssertionError("No instances.");
+    }
+
+    /**
+     * Plays the feedback sound, unless it's merged, rate limited, or all pooled instances are still playing.
+     *
+     * @param client   Client to play the sound with
+     * @param snapshot Current config snapshot
+     * @return Whether the sound has been played
+     */
+    public static boolean play(Minecraft client, BSnapshot snapshot) {
+        // Merge into the last sound within the window.
+        long now = System.nanoTime();
+        if ((now - last) < snapshot.soundWindow()) {
+            suppressed++;
+            return false;
+        }
+
+        // Drop over the rate limit.
+        if ((now - second) >= SECOND) {
+            second = now;
+            secondPlayed = 0;
+        }
+        if (secondPlayed >= snapshot.soundRate()) {
+            suppressed++;
+            return false;
+        }
+
+        // Find the free pooled instance. Drop if none.
+        SoundManager manager = client.getSoundManager();
+        for (int i = 0; i < POOL.length; i++) {
+            // Create the instance, if needed.
+            SoundInstance sound = POOL[i];
+            if (sound == null) {
+                sound = SimpleSoundInstance.forUI(SoundEvents.PIG_AMBIENT, 1.0F);
+                POOL[i] = sound;
+            } else if (manager.isActive(sound)) {
+                continue;
+            }
+
+            // Play.
+            manager.play(sound);
+            last = now;
+            secondPlayed++;
+            played++;
+            return true;
+        }
+        suppressed++;
+        return false;
+    }
+
+    /**
+     * Gets the played sounds.
+     *
+     * @return Total number of the played sounds
+     */
+    @Contract(pure = true)
+    public static long played() {
+        return played;
+    }
+
+    /**
+     * Gets the suppressed sounds.
+     *
+     * @return Total number of the merged or dropped sounds
+     */
+    @Contract(pure = true)
+    public static long suppressed() {
+        return suppressed;
+    }
+}
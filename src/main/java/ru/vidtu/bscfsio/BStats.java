@@ -0,0 +1,239 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024-2025 VidTu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.vidtu.bscfsio;
+
+import net.minecraft.network.chat.Component;
+import net.minecraft.world.inventory.ClickType;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.CheckReturnValue;
+import org.jetbrains.annotations.Contract;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Always-on low-overhead stats. Counters are striped {@link LongAdder}s and latencies are fixed-bucket
+ * {@link BHistogram}s, so recording never locks or allocates. Shown via the {@code /bscfsio stats}
+ * command and the optional stats HUD line.
+ *
+ * @author VidTu
+ */
+@ApiStatus.Internal
+@NullMarked
+public final class BStats {
+    /**
+     * Click types, cached to avoid copying the values.
+     */
+    private static final ClickType[] TYPES = ClickType.values();
+
+    /**
+     * Handled clicks per {@link ClickType#ordinal()}.
+     */
+    private static final LongAdder[] CLICKS = adders(TYPES.length);
+
+    /**
+     * Blocked clicks per {@link ClickType#ordinal()}.
+     */
+    private static final LongAdder[] BLOCKED = adders(TYPES.length);
+
+    /**
+     * Rendered overlay quads.
+     */
+    private static final LongAdder OVERLAYS = new LongAdder();
+
+    /**
+     * Written config saves.
+     */
+    private static final LongAdder SAVES = new LongAdder();
+
+    /**
+     * Latency of the {@code bscfsio:handle_mouse_click} path.
+     */
+    private static final BHistogram CLICK_LATENCY = new BHistogram();
+
+    /**
+     * Latency of the {@code bscfsio:render_slot_overlay} path.
+     */
+    private static final BHistogram RENDER_LATENCY = new BHistogram();
+
+    /**
+     * Cached HUD line, {@code null} if not created yet. Accessed only from the client thread.
+     */
+    @Nullable
+    private static Component hud;
+
+    /**
+     * Time when the {@link #hud} line was created. (in units of {@link System#nanoTime()}) Accessed only from the client thread.
+     */
+    private static long hudTime;
+
+    /**
+     * An instance of this class cannot be created.
+     *
+     * @throws AssertionError Always
+     * @deprecated Always throws
+     */
+    @Deprecated(forRemoval = true)
+    @Contract(value = "-> fail", pure = true)
+    private BStats() {
+        throw new AssertionError("No instances.");
+    }
+
+    /**
+     * Records the handled click.
+     *
+     * @param click   Click type {@link ClickType#ordinal()}
+     * @param blocked Whether the click has been blocked
+     * @param nanos   Time spent deciding in nanoseconds
+     */
+    public static void click(int click, boolean blocked, long nanos) {
+        CLICKS[click].increment();
+        if (blocked) {
+            BLOCKED[click].increment();
+        }
+        CLICK_LATENCY.record(nanos);
+    }
+
+    /**
+     * Records the overlay pass.
+     *
+     * @param quads Number of rendered overlay quads
+     * @param nanos Time spent rendering in nanoseconds
+     */
+    public static void render(int quads, long nanos) {
+        OVERLAYS.add(quads);
+        RENDER_LATENCY.record(nanos);
+    }
+
+    /**
+     * Records the written config save.
+     */
+    static void save() {
+        SAVES.increment();
+    }
+
+    /**
+     * Resets all stats. Events recorded concurrently might be lost.
+     */
+    static void reset() {
+        for (int i = 0; i < TYPES.length; i++) {
+            CLICKS[i].reset();
+            BLOCKED[i].reset();
+        }
+        OVERLAYS.reset();
+        SAVES.reset();
+        CLICK_LATENCY.reset();
+        RENDER_LATENCY.reset();
+    }
+
+    /**
+     * Creates the stats report.
+     *
+     * @return A new list of the report lines
+     */
+    @CheckReturnValue
+    static List<Component> report() {
+        // Report the totals.
+        List<Component> lines = new ArrayList<>(TYPES.length + 4);
+        lines.add(Component.translatable("bscfsio.stats.clicks", sum(CLICKS), sum(BLOCKED)));
+
+        // Report the blocked clicks per type.
+        for (int i = 0; i < TYPES.length; i++) {
+            long blocked = BLOCKED[i].sum();
+            if (blocked == 0L) continue;
+            lines.add(Component.translatable("bscfsio.stats.blocked", TYPES[i].name(), CLICKS[i].sum(), blocked));
+        }
+
+        // Report the rest.
+        lines.add(Component.translatable("bscfsio.stats.other", OVERLAYS.sum(), SAVES.sum(), BSound.played(), BSound.suppressed()));
+        lines.add(latency("handle_mouse_click", CLICK_LATENCY));
+        lines.add(latency("render_slot_overlay", RENDER_LATENCY));
+        return lines;
+    }
+
+    /**
+     * Gets the stats HUD line, refreshed once per second. Must be called only from the client thread.
+     *
+     * @return HUD line
+     */
+    static Component hud() {
+        // Reuse the line within a second.
+        long now = System.nanoTime();
+        Component line = hud;
+        if ((line != null) && ((now - hudTime) < 1_000_000_000L)) return line;
+
+        // Refresh.
+        line = Component.translatable("bscfsio.stats.hud", sum(BLOCKED), sum(CLICKS),
+                CLICK_LATENCY.percentile(0.99D) / 1000L, RENDER_LATENCY.percentile(0.99D) / 1000L);
+        hud = line;
+        hudTime = now;
+        return line;
+    }
+
+    /**
+     * Creates the latency report line.
+     *
+     * @param name      Path name
+     * @param histogram Path latency histogram
+     * @return A new report line
+     */
+    @CheckReturnValue
+    private static Component latency(String name, BHistogram histogram) {
+        return Component.translatable("bscfsio.stats.latency", name, histogram.count(), histogram.percentile(0.5D) / 1000L,
+                histogram.percentile(0.99D) / 1000L, histogram.max() / 1000L);
+    }
+
+    /**
+     * Sums the counters.
+     *
+     * @param adders Counters to sum
+     * @return Sum of the counters
+     */
+    private static long sum(LongAdder[] adders) {
+        long sum = 0L;
+        for (LongAdder adder : adders) {
+            sum += adder.sum();
+        }
+        return sum;
+    }
+
+    /**
+     * Creates the counters.
+     *
+     * @param count Number of the counters
+     * @return A new array of the counters
+     */
+    @CheckReturnValue
+    private static LongAdder[] adders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024-2025 VidTu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.vidtu.bscfsio;
+
+import net.minecraft.world.item.ItemStack;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Contract;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Tag version of the {@link ItemStack}, bumped by the {@code ItemStackMixin} on every call that may edit the tag
+ * in place. Used to invalidate the cached verdicts without walking the tag.
+ *
+ * @author VidTu
+ * @see BRules
+ * @see BMask
+ */
+@ApiStatus.Internal
+@NullMarked
+public interface BTagVersion {
+    /**
+     * Gets the tag version.
+     *
+     * @return Current tag version of this stack
+     */
+    @Contract(pure = true)
+    int bscfsio_tagVersion();
+
+    /**
+     * Gets the tag version of the stack.
+     *
+     * @param stack Stack to get the version of
+     * @return Current tag version of the stack, {@code 0} if the mixin is not applied (e.g. in benchmarks)
+     */
+    @Contract(pure = true)
+    static int of(ItemStack stack) {
+        return (((Object) stack instanceof BTagVersion version) ? version.bscfsio_tagVersion() : 0);
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024-2025 VidTu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.vidtu.bscfsio;
+
+import com.google.gson.Gson;
+import net.minecraft.client.Minecraft;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Contract;
+import org.jspecify.annotations.NullMarked;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background config file watcher. Re-reads and parses the changed config off the client thread,
+ * then validates, compiles, and publishes it on the client thread via {@link BConfig#install(BConfig, java.util.concurrent.Executor)}. Changes written by the {@link BSerializer} itself are ignored.
+ *
+ * @author VidTu
+ */
+@ApiStatus.Internal
+@NullMarked
+final class BWatcher implements Runnable {
+    /**
+     * Logger for this class.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger("BSCFSIO/BWatcher");
+
+    /**
+     * Delay in milliseconds to wait for the writer to finish before reading the file.
+     */
+    private static final long DELAY = 100L;
+
+    /**
+     * Serializer that writes the watched file.
+     */
+    private final BSerializer serializer;
+
+    /**
+     * GSON instance to parse the config with.
+     */
+    private final Gson gson;
+
+    /**
+     * Watch service.
+     */
+    private final WatchService service;
+
+    /**
+     * Creates a new watcher.
+     *
+     * @param serializer Serializer that writes the watched file
+     * @param gson       GSON instance to parse the config with
+     * @param service    Watch service, the config directory should be registered
+     */
+    @Contract(pure = true)
+    private BWatcher(BSerializer serializer, Gson gson, WatchService service) {
+        this.serializer = serializer;
+        this.gson = gson;
+        this.service = service;
+    }
+
+    @Override
+    public void run() {
+        Path path = this.serializer.path();
+        Path name = path.getFileName();
+        try {
+            while (true) {
+                // Wait for the changes.
+                WatchKey key = this.service.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    changed |= name.equals(event.context());
+                }
+                key.reset();
+                if (!changed) continue;
+
+                // Wait for the writer and merge the burst of events.
+                Thread.sleep(DELAY);
+                WatchKey extra;
+                while ((extra = this.service.poll(DELAY, TimeUnit.MILLISECONDS)) != null) {
+                    extra.pollEvents();
+                    extra.reset();
+                }
+
+                // Reload.
+                this.reload(path);
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Log. (**DEBUG**)
+            LOGGER.debug("BSCFSIO: Config watcher stopped.", e);
+        }
+    }
+
+    /**
+     * Reloads the config from the file.
+     *
+     * @param path Config file path
+     */
+    private void reload(Path path) {
+        try {
+            // Read, skip own writes and deleted files.
+            if (!Files.isRegularFile(path)) return;
+            byte[] data = Files.readAllBytes(path);
+            if (this.serializer.isLastWritten(data)) return;
+
+            // Log. (**DEBUG**)
+            long start = System.nanoTime();
+            LOGGER.debug("BSCFSIO: Reloading changed config... (path: {})", path);
+
+            // Parse. Validated and compiled on the client thread, the registries and the tags may be changing now.
+            BConfig config = this.gson.fromJson(new String(data, StandardCharsets.UTF_8), BConfig.class);
+            if (config == null) {
+                LOGGER.warn("BSCFSIO: Ignoring empty changed config. (path: {})", path);
+                return;
+            }
+
+            // Install.
+            BConfig.install(config, Minecraft.getInstance());
+
+            // Log.
+            LOGGER.info("BSCFSIO: Changed config read, installing on the client thread. ({} ms)", (System.nanoTime() - start) / 1_000_000L);
+        } catch (Throwable t) {
+            // Log.
+            LOGGER.error("BSCFSIO: Unable to reload changed config. (path: {})", path, t);
+        }
+    }
+
+    /**
+     * Starts watching the config file in background.
+     *
+     * @param serializer Serializer that writes the watched file
+     * @param gson       GSON instance to parse the config with
+     */
+    static void start(BSerializer serializer, Gson gson) {
+        try {
+            // Register the directory.
+            Path directory = serializer.path().getParent();
+            Files.createDirectories(directory);
+            WatchService service = directory.getFileSystem().newWatchService();
+            directory.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+            // Start the thread.
+            Thread thread = new Thread(new BWatcher(serializer, gson, service), "BSCFSIO Config Watcher");
+            thread.setDaemon(true);
+            thread.start();
+        } catch (Throwable t) {
+            // Log.
+            LOGGER.error("BSCFSIO: Unable to start config watcher, hot-reload won't work.", t);
+        }
+    }
+}
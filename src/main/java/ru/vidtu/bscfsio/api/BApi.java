@@ -0,0 +1,78 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024-2025 VidTu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.vidtu.bscfsio.api;
+
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.inventory.AbstractContainerMenu;
+import net.minecraft.world.inventory.ClickType;
+import org.jetbrains.annotations.Contract;
+import org.jspecify.annotations.NullMarked;
+
+import java.util.BitSet;
+
+/**
+ * BSCFSIO API. Allows other mods (e.g. inventory sorting or restocking ones) to query the protected slots
+ * in bulk and plan around them instead of sending clicks that will be blocked. Obtained via {@link BApiInitializer}.
+ * All methods must be called only from the client thread.
+ *
+ * @author VidTu
+ * @see BApiInitializer
+ */
+@NullMarked
+public interface BApi {
+    /**
+     * Gets whether the mod is enabled.
+     *
+     * @return Whether the mod is enabled and may block the clicks
+     * @throws IllegalStateException If called not from the client thread
+     */
+    boolean enabled();
+
+    /**
+     * Gets the slots with the stacks that are protected from moving.
+     *
+     * @param menu Menu to check
+     * @return A new set of the protected slot indexes, empty if the mod is disabled
+     * @throws IllegalStateException If called not from the client thread
+     */
+    @Contract("_ -> new")
+    BitSet protectedSlots(AbstractContainerMenu menu);
+
+    /**
+     * Gets the planned clicks that would be blocked. All clicks are checked against the current state of
+     * the player's open menu, i.e. as if each one was the next click to be sent. Arguments are the same
+     * as in {@link net.minecraft.client.multiplayer.MultiPlayerGameMode#handleInventoryMouseClick(int, int, int, ClickType, Player)}.
+     *
+     * @param player  Player to click with
+     * @param slots   Slot indexes of the planned clicks
+     * @param buttons Button IDs of the planned clicks, parallel to {@code slots}
+     * @param types   Click types of the planned clicks, parallel to {@code slots}
+     * @return A new set of the blocked click indexes in the given arrays, empty if the mod is disabled
+     * @throws IllegalArgumentException If the array lengths differ
+     * @throws IllegalStateException    If called not from the client thread
+     */
+    @Contract("_, _, _, _ -> new")
+    BitSet blockedClicks(Player player, int[] slots, int[] buttons, ClickType[] types);
+}
@@ -0,0 +1,46 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024-2025 VidTu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.vidtu.bscfsio.api;
+
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * BSCFSIO API entrypoint. Mods should implement this interface and declare it under the {@code bscfsio} entrypoint
+ * in their {@code fabric.mod.json}, e.g. {@code "entrypoints": {"bscfsio": ["com.example.ExampleBSCFSIO"]}}.
+ * Entrypoints are invoked once, on the client thread, after BSCFSIO has been loaded.
+ *
+ * @author VidTu
+ * @see BApi
+ */
+@FunctionalInterface
+@NullMarked
+public interface BApiInitializer {
+    /**
+     * Called when the API is available.
+     *
+     * @param api API instance, can be stored and used later
+     */
+    void onBSCFSIOApi(BApi api);
+}
@@ -0,0 +1,94 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024-2025 VidTu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.vidtu.bscfsio.mixins;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.world.inventory.AbstractContainerMenu;
+import net.minecraft.world.item.ItemStack;
+import org.jetbrains.annotations.Contract;
+import org.jspecify.annotations.NullMarked;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import ru.vidtu.bscfsio.BMask;
+
+import java.util.List;
+
+/**
+ * Mixin that keeps the {@link BMask} in sync with the slot updates sent by the server.
+ *
+ * @author VidTu
+ */
+// @ApiStatus.Internal // Can't annotate this without logging in the console.
+@Mixin(AbstractContainerMenu.class)
+@NullMarked
+public final class AbstractContainerMenuMixin {
+    /**
+     * An instance of this class cannot be created.
+     *
+     * @throws AssertionError Always
+     * @deprecated Always throws
+     */
+    @Deprecated(forRemoval = true)
+    @Contract(value = "-> fail", pure = true)
+    private AbstractContainerMenuMixin() {
+        throw new AssertionError("No instances.");
+    }
+
+    /**
+     * Rebuilds the protected-slot mask when the menu contents arrive.
+     *
+     * @param stateId Menu state ID, ignored
+     * @param items   New slot stacks, ignored
+     * @param carried New carried stack, ignored
+     * @param ci      Callback data, ignored
+     */
+    @Inject(method = "initializeContents", at = @At("TAIL"))
+    private void bscfsio_initializeContents_tail(int stateId, List<ItemStack> items, ItemStack carried, CallbackInfo ci) {
+        // Skip if not on the client thread.
+        if (!Minecraft.getInstance().isSameThread()) return;
+
+        // Rebuild.
+        BMask.rebuild((AbstractContainerMenu) (Object) this);
+    }
+
+    /**
+     * Updates the protected-slot mask when the slot contents arrive.
+     *
+     * @param slot    Changed slot index
+     * @param stateId Menu state ID, ignored
+     * @param stack   New slot stack, ignored
+     * @param ci      Callback data, ignored
+     */
+    @Inject(method = "setItem", at = @At("TAIL"))
+    private void bscfsio_setItem_tail(int slot, int stateId, ItemStack stack, CallbackInfo ci) {
+        // Skip if not on the client thread.
+        if (!Minecraft.getInstance().isSameThread()) return;
+
+        // Update.
+        BMask.update((AbstractContainerMenu) (Object) this, slot);
+    }
+}
@@ -24,12 +24,11 @@
 
 package ru.vidtu.bscfsio.mixins;
 
-import net.minecraft.client.gui.GuiGraphics;
 import net.minecraft.client.gui.screens.Screen;
 import net.minecraft.client.gui.screens.inventory.AbstractContainerScreen;
-import net.minecraft.client.renderer.RenderType;
-import net.minecraft.util.profiling.ProfilerFiller;
-import net.minecraft.world.inventory.Slot;
+import net.minecraft.network.chat.Component;
+import net.minecraft.world.entity.player.Inventory;
+import net.minecraft.world.inventory.AbstractContainerMenu;
 import org.jetbrains.annotations.Contract;
 import org.jspecify.annotations.NullMarked;
 import org.spongepowered.asm.mixin.Mixin;
@@ -37,10 +36,12 @@ import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import ru.vidtu.bscfsio.BConfig;
-import ru.vidtu.bscfsio.BSlot;
+import ru.vidtu.bscfsio.BMask;
+import ru.vidtu.bscfsio.BMixinPlugin;
+import ru.vidtu.bscfsio.BOverlay;
 
 /**
- * Mixin that draws visual overlay on slots.
+ * Mixin that loads the config and clears the slot state for the container screens.
  *
  * @author VidTu
  */
@@ -62,41 +63,28 @@ public final class AbstractContainerScreenMixin extends Screen {
     }
 
     /**
-     * Renders the slot overlay, if needed.
+     * Finishes loading the config before the first container screen opens.
      *
-     * @param graphics Graphics to render the overlay with
-     * @param slot     Slot to render the overlay of
-     * @param ci       Callback data, ignored
+     * @param menu      Screen menu, ignored
+     * @param inventory Player inventory, ignored
+     * @param title     Screen title, ignored
+     * @param ci        Callback data, ignored
      */
-    @Inject(method = "renderSlot", at = @At("TAIL"))
-    private void bscfsio_renderSlot_tail(GuiGraphics graphics, Slot slot, CallbackInfo ci) {
-        // Validate.
-        assert this.minecraft != null : "Minecraft is null at rendering slot. (graphics: " + graphics + ", slot: " + slot + ", screen: " + this + ", ci: " + ci + ')';
-
-        // Push the profiler.
-        ProfilerFiller profiler = this.minecraft.getProfiler(); // Implicit NPE for 'minecraft'
-        profiler.push("bscfsio:render_slot_overlay");
-
-        // Skip if visual overlay is disabled.
-        BConfig config = BConfig.get();
-        if (config.visual() <= 0L) {
-            // Pop, stop.
-            profiler.pop();
-            return;
-        }
+    @Inject(method = "<init>", at = @At("TAIL"))
+    private void bscfsio_init_tail(AbstractContainerMenu menu, Inventory inventory, Component title, CallbackInfo ci) {
+        BConfig.await();
+    }
 
-        // Skip if overlay has expired.
-        long time = ((BSlot) slot).bscfsio_renderOverlayUntil();
-        if (System.nanoTime() >= time) {
-            // Pop, stop.
-            profiler.pop();
-            return;
+    /**
+     * Clears the slot overlays and the protected-slot mask when the menu gets closed.
+     *
+     * @param ci Callback data, ignored
+     */
+    @Inject(method = "removed", at = @At("TAIL"))
+    private void bscfsio_removed_tail(CallbackInfo ci) {
+        if (BMixinPlugin.OVERLAY) {
+            BOverlay.clear();
         }
-
-        // Render the overlay.
-        graphics.fill(RenderType.guiOverlay(), slot.x, slot.y, slot.x + 16, slot.y + 16, config.visualColor());
-
-        // Pop the profiler.
-        profiler.pop();
+        BMask.clear();
     }
 }
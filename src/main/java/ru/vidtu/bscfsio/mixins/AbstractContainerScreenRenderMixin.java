@@ -0,0 +1,115 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024-2025 VidTu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.vidtu.bscfsio.mixins;
+
+import net.minecraft.client.gui.GuiGraphics;
+import net.minecraft.client.gui.screens.Screen;
+import net.minecraft.client.gui.screens.inventory.AbstractContainerScreen;
+import net.minecraft.util.profiling.ProfilerFiller;
+import net.minecraft.world.inventory.AbstractContainerMenu;
+import org.jetbrains.annotations.Contract;
+import org.jspecify.annotations.NullMarked;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import ru.vidtu.bscfsio.BConfig;
+import ru.vidtu.bscfsio.BOverlay;
+import ru.vidtu.bscfsio.BOverlayEvent;
+import ru.vidtu.bscfsio.BSnapshot;
+import ru.vidtu.bscfsio.BStats;
+
+/**
+ * Mixin that draws visual overlay and lock indicators on slots. Not applied by
+ * {@link ru.vidtu.bscfsio.BMixinPlugin} if the overlays are disabled at startup.
+ *
+ * @author VidTu
+ */
+// @ApiStatus.Internal // Can't annotate this without logging in the console.
+@Mixin(AbstractContainerScreen.class)
+@NullMarked
+public final class AbstractContainerScreenRenderMixin extends Screen {
+    /**
+     * Menu of this screen.
+     */
+    @Shadow
+    @Final
+    protected AbstractContainerMenu menu;
+
+    /**
+     * An instance of this class cannot be created.
+     *
+     * @throws AssertionError Always
+     * @deprecated Always throws
+     */
+    @Deprecated(forRemoval = true)
+    @Contract(value = "-> fail", pure = true)
+    private AbstractContainerScreenRenderMixin() {
+        super(null);
+        throw new AssertionError("No instances.");
+    }
+
+    /**
+     * Renders all active slot overlays in one batch after all slots have been rendered.
+     *
+     * @param graphics    Graphics to render the overlays with
+     * @param mouseX      Mouse X position, ignored
+     * @param mouseY      Mouse Y position, ignored
+     * @param partialTick Partial tick, ignored
+     * @param ci          Callback data, ignored
+     */
+    @Inject(method = "render", at = @At(value = "INVOKE", target = "Lnet/minecraft/client/gui/screens/inventory/AbstractContainerScreen;renderLabels(Lnet/minecraft/client/gui/GuiGraphics;II)V"))
+    private void bscfsio_render_renderLabels(GuiGraphics graphics, int mouseX, int mouseY, float partialTick, CallbackInfo ci) {
+        // Skip if no overlay is shown and the lock indicator is disabled. (the common case, no allocations or timing)
+        BSnapshot snapshot = BConfig.snapshot();
+        boolean locks = (snapshot.enabled() && snapshot.lockIndicator());
+        if (!BOverlay.active() && !locks) return;
+
+        // Validate.
+        assert this.minecraft != null : "Minecraft is null at rendering slot overlays. (graphics: " + graphics + ", screen: " + this + ", ci: " + ci + ')';
+
+        // Push the profiler.
+        ProfilerFiller profiler = this.minecraft.getProfiler(); // Implicit NPE for 'minecraft'
+        profiler.push("bscfsio:render_slot_overlay");
+
+        // Render the overlays.
+        BOverlayEvent event = new BOverlayEvent();
+        event.begin();
+        long start = System.nanoTime();
+        int quads = BOverlay.render(graphics, this.menu, snapshot.visualColor(), locks);
+        BStats.render(quads, System.nanoTime() - start);
+        profiler.incrementCounter("bscfsio:overlay_quads", quads);
+        if (event.shouldCommit()) {
+            event.slots = this.menu.slots.size();
+            event.overlays = quads;
+            event.commit();
+        }
+
+        // Pop the profiler.
+        profiler.pop();
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024-2025 VidTu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.vidtu.bscfsio.mixins;
+
+import me.shedaniel.clothconfig2.gui.entries.BaseListCell;
+import me.shedaniel.clothconfig2.gui.entries.BaseListEntry;
+import net.minecraft.client.gui.components.events.GuiEventListener;
+import net.minecraft.client.gui.narration.NarratableEntry;
+import org.jspecify.annotations.NullMarked;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+import org.spongepowered.asm.mixin.gen.Invoker;
+
+import java.util.List;
+
+/**
+ * Accessor for the cells of the Cloth Config list entry, used to write the picked items into the open config screen.
+ *
+ * @author VidTu
+ */
+// @ApiStatus.Internal // Can't annotate this without logging in the console.
+@Mixin(value = BaseListEntry.class, remap = false)
+@NullMarked
+public interface BaseListEntryAccessor {
+    /**
+     * Gets the cells.
+     *
+     * @return Mutable list of the entry cells
+     */
+    @Accessor("cells")
+    List<BaseListCell> bscfsio_cells();
+
+    /**
+     * Gets the widgets.
+     *
+     * @return Mutable list of the entry widgets, including the cells
+     */
+    @Accessor("widgets")
+    List<GuiEventListener> bscfsio_widgets();
+
+    /**
+     * Gets the narratables.
+     *
+     * @return Mutable list of the entry narratables, including the cells
+     */
+    @Accessor("narratables")
+    List<NarratableEntry> bscfsio_narratables();
+
+    /**
+     * Creates a new cell.
+     *
+     * @param value Cell value
+     * @return Created cell, not yet added
+     */
+    @Invoker("getFromValue")
+    BaseListCell bscfsio_getFromValue(Object value);
+}
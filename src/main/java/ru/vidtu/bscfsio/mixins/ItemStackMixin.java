@@ -24,39 +24,32 @@
 
 package ru.vidtu.bscfsio.mixins;
 
-import net.minecraft.world.Container;
-import net.minecraft.world.inventory.Slot;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.world.item.ItemStack;
 import org.jetbrains.annotations.Contract;
 import org.jspecify.annotations.NullMarked;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
-import ru.vidtu.bscfsio.BSlot;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+import ru.vidtu.bscfsio.BTagVersion;
 
 /**
- * Mixin that extends {@link Slot} with {@link BSlot}.
+ * Mixin that bumps the {@link BTagVersion} on every call that may edit the stack's tag in place.
  *
  * @author VidTu
  */
 // @ApiStatus.Internal // Can't annotate this without logging in the console.
-@Mixin(Slot.class)
+@Mixin(ItemStack.class)
 @NullMarked
-public final class SlotMixin implements BSlot {
+public final class ItemStackMixin implements BTagVersion {
     /**
-     * Logger for this class.
+     * Tag version of this stack.
      */
     @Unique
-    private static final Logger BSCFSIO_LOGGER = LoggerFactory.getLogger("BSCFSIO/SlotMixin");
-
-    /**
-     * Time when overlay rendering should be stopped. (in units of {@link System#nanoTime()})
-     */
-    @Unique
-    private long bscfsio_renderOverlayUntil;
+    private int bscfsio_tagVersion;
 
     /**
      * An instance of this class cannot be created.
@@ -66,39 +59,33 @@ public final class SlotMixin implements BSlot {
      */
     @Deprecated(forRemoval = true)
     @Contract(value = "-> fail", pure = true)
-    private SlotMixin() {
+    private ItemStackMixin() {
         throw new AssertionError("No instances.");
     }
 
     /**
-     * Sets the {@link #bscfsio_renderOverlayUntil()} value to current
-     * time to avoid overflow-caused permanent rendering.
+     * Bumps the tag version before the tag is replaced or edited.
      *
-     * @param container Slot container, ignored
-     * @param slot      Slot index, ignored
-     * @param x         Slot X position, ignored
-     * @param y         Slot Y position, ignored
-     * @param ci        Callback data, ignored
+     * @param ci Callback data, ignored
      */
-    @Inject(method = "<init>", at = @At("RETURN"))
-    private void bscfsio_init_return(Container container, int slot, int x, int y, CallbackInfo ci) {
-        this.bscfsio_renderOverlayUntil = System.nanoTime();
+    @Inject(method = {"setTag", "addTagElement", "removeTagKey"}, at = @At("HEAD"))
+    private void bscfsio_setTag_head(CallbackInfo ci) {
+        this.bscfsio_tagVersion++;
     }
 
-    @Contract(pure = true)
-    @Override
-    public long bscfsio_renderOverlayUntil() {
-        return this.bscfsio_renderOverlayUntil;
+    /**
+     * Bumps the tag version before the mutable tag is given out.
+     *
+     * @param cir Callback data, ignored
+     */
+    @Inject(method = {"getOrCreateTag", "getOrCreateTagElement"}, at = @At("HEAD"))
+    private void bscfsio_getOrCreateTag_head(CallbackInfoReturnable<CompoundTag> cir) {
+        this.bscfsio_tagVersion++;
     }
 
+    @Contract(pure = true)
     @Override
-    public void bscfsio_renderOverlayUntil(long time) {
-        // Log. (**DEBUG**)
-        if (BSCFSIO_LOGGER.isDebugEnabled()) {
-            BSCFSIO_LOGGER.debug("BSCFSIO: Setting slot to render overlay. (time: {}, slot: {})", time, this);
-        }
-
-        // Set.
-        this.bscfsio_renderOverlayUntil = time;
+    public int bscfsio_tagVersion() {
+        return this.bscfsio_tagVersion;
     }
 }
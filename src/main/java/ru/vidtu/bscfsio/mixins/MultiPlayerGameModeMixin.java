@@ -26,19 +26,18 @@ package ru.vidtu.bscfsio.mixins;
 
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.multiplayer.MultiPlayerGameMode;
-import net.minecraft.client.resources.sounds.SimpleSoundInstance;
 import net.minecraft.core.NonNullList;
-import net.minecraft.sounds.SoundEvents;
+import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.util.profiling.ProfilerFiller;
+import net.minecraft.world.entity.player.Inventory;
 import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.inventory.AbstractContainerMenu;
 import net.minecraft.world.inventory.ClickType;
 import net.minecraft.world.inventory.Slot;
 import net.minecraft.world.item.ItemStack;
 import org.jetbrains.annotations.Contract;
 import org.jspecify.annotations.NullMarked;
 import org.objectweb.asm.Opcodes;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
@@ -46,8 +45,18 @@ import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import ru.vidtu.bscfsio.BClickEvent;
 import ru.vidtu.bscfsio.BConfig;
-import ru.vidtu.bscfsio.BSlot;
+import ru.vidtu.bscfsio.BDecision;
+import ru.vidtu.bscfsio.BJournal;
+import ru.vidtu.bscfsio.BMask;
+import ru.vidtu.bscfsio.BMixinPlugin;
+import ru.vidtu.bscfsio.BOverlay;
+import ru.vidtu.bscfsio.BPolicy;
+import ru.vidtu.bscfsio.BRecorder;
+import ru.vidtu.bscfsio.BSnapshot;
+import ru.vidtu.bscfsio.BSound;
+import ru.vidtu.bscfsio.BStats;
 
 /**
  * Class that does the cancelling.
@@ -58,12 +67,6 @@ import ru.vidtu.bscfsio.BSlot;
 @Mixin(MultiPlayerGameMode.class)
 @NullMarked
 public final class MultiPlayerGameModeMixin {
-    /**
-     * Logger for this class.
-     */
-    @Unique
-    private static final Logger BSCFSIO_LOGGER = LoggerFactory.getLogger("BSCFSIO/MultiPlayerGameModeMixin");
-
     /**
      * A minecraft client instance shadow.
      */
@@ -71,6 +74,12 @@ public final class MultiPlayerGameModeMixin {
     @Final
     private final Minecraft minecraft = Minecraft.getInstance();
 
+    /**
+     * Whether the current {@link ClickType#QUICK_CRAFT} gesture is blocked.
+     */
+    @Unique
+    private boolean bscfsio_dragBlocked;
+
     /**
      * An instance of this class cannot be created.
      *
@@ -86,88 +95,203 @@ public final class MultiPlayerGameModeMixin {
     /**
      * Handles (and cancels if needed) the click.
      *
-     * @param container Container ID, ignored
-     * @param slot      Slot ID, used to retrieve the clicked item
-     * @param button    Button ID, ignored
-     * @param click     Click type, the mod handles only {@link ClickType#QUICK_MOVE}
+     * @param container Container ID, used to key the visual overlay
+     * @param slot      Slot ID, used to retrieve the clicked item and key the visual overlay
+     * @param button    Button ID, used to retrieve the swapped item and the drag phase
+     * @param click     Click type, used to get the {@link BPolicy}
      * @param player    Player clicked the slot, used to retrieve the clicked item
      * @param ci        Callback data, used to cancel the click
      */
     @Inject(method = "handleInventoryMouseClick", at = @At(value = "FIELD", target = "Lnet/minecraft/world/inventory/AbstractContainerMenu;slots:Lnet/minecraft/core/NonNullList;", opcode = Opcodes.GETFIELD), cancellable = true)
     private void bscfsio_handleInventoryMouseClick_slots(int container, int slot, int button, ClickType click, Player player, CallbackInfo ci) {
         // Push the profiler.
+        long start = System.nanoTime();
         ProfilerFiller profiler = this.minecraft.getProfiler();
         profiler.push("bscfsio:handle_mouse_click");
+        BClickEvent event = new BClickEvent();
+        event.begin();
 
-        // Log. (**TRACE**)
-        if (BSCFSIO_LOGGER.isTraceEnabled()) {
-            BSCFSIO_LOGGER.trace("BSCFSIO: Handling inventory mouse click. (container: {}, slot: {}, button: {}, click: {}, player: {}, ci: {}, gameMode: {})", container, slot, button, click, player, ci, this);
-        }
-
-        // Skip if click is not shift-click.
-        if (click != ClickType.QUICK_MOVE) {
-            // Log, pop, stop. (**TRACE**)
-            if (BSCFSIO_LOGGER.isTraceEnabled()) {
-                BSCFSIO_LOGGER.trace("BSCFSIO: Skipping handling inventory mouse click, because click != QUICK_MOVE. (container: {}, slot: {}, button: {}, click: {}, player: {}, ci: {}, gameMode: {})", container, slot, button, click, player, ci, this);
-            }
+        // Skip if the mod is disabled or the click type is not handled.
+        BSnapshot snapshot = BConfig.snapshot();
+        int type = click.ordinal();
+        BPolicy policy = BDecision.policy(snapshot, type);
+        if (policy == BPolicy.IGNORE) {
+            // Record, pop, stop.
+            bscfsio_record(event, start, container, slot, button, click, player.containerMenu, /*blocked=*/false);
             profiler.pop();
             return;
         }
 
-        // Skip if the mod is disabled.
-        BConfig config = BConfig.get();
-        if (!config.enabled()) {
-            // Log, pop, stop. (**TRACE**)
-            if (BSCFSIO_LOGGER.isTraceEnabled()) {
-                BSCFSIO_LOGGER.trace("BSCFSIO: Skipping handling inventory mouse click, because the mod is not enabled. (container: {}, slot: {}, button: {}, click: {}, player: {}, ci: {}, gameMode: {}, config: {})", container, slot, button, click, player, ci, this, config);
-            }
-            profiler.pop();
-            return;
-        }
+        // Decide. Slot stacks are tested via the protected-slot mask.
+        AbstractContainerMenu menu = player.containerMenu;
+        int slots = menu.slots.size();
+        boolean inBounds = ((slot >= 0) && (slot < slots));
+        boolean blocked = switch (policy) {
+            case IGNORE -> false;
+            case SLOT -> inBounds && BMask.isProtected(menu, slot);
+            case SWAP -> inBounds && (BMask.isProtected(menu, slot) ||
+                    bscfsio_check(snapshot, type, slot, slots, bscfsio_swapped(player, button)));
+            case GATHER -> inBounds && bscfsio_gather(snapshot, container, menu);
+            case DRAG -> this.bscfsio_drag(snapshot, type, menu, slot, button);
+        };
 
-        // Skip if click is out of bounds.
-        NonNullList<Slot> items = player.containerMenu.slots;
-        if ((slot < 0) || (slot >= items.size())) {
-            // Log, pop, stop. (**TRACE**)
-            if (BSCFSIO_LOGGER.isTraceEnabled()) {
-                BSCFSIO_LOGGER.trace("BSCFSIO: Skipping handling inventory mouse click, because the slot is out out bounds. (container: {}, slot: {}, button: {}, click: {}, player: {}, ci: {}, gameMode: {}, config: {}, items: {}, itemsSize: {})", container, slot, button, click, player, ci, this, config, items, items.size());
-            }
-            profiler.pop();
-            return;
+        // Show the overlay on the clicked slot.
+        if (blocked && inBounds) {
+            bscfsio_show(snapshot, container, slot);
         }
 
-        // Skip if item is empty or is not immovable.
-        Slot clickedSlot = items.get(slot);
-        ItemStack stack = clickedSlot.getItem();
-        if (!config.isMovingProhibited(stack)) {
-            // Log, pop, stop. (**TRACE**)
-            if (BSCFSIO_LOGGER.isTraceEnabled()) {
-                BSCFSIO_LOGGER.trace("BSCFSIO: Skipping handling inventory mouse click, because the moved item is allowed to be moved. (container: {}, slot: {}, button: {}, click: {}, player: {}, ci: {}, gameMode: {}, config: {}, items: {}, clickedSlot: {}, stack: {})", container, slot, button, click, player, ci, this, config, items, clickedSlot, stack);
-            }
+        // Skip if not blocked.
+        if (!blocked) {
+            // Record, pop, stop.
+            bscfsio_record(event, start, container, slot, button, click, menu, /*blocked=*/false);
             profiler.pop();
             return;
         }
 
-        // Log. (**DEBUG**)
-        if (BSCFSIO_LOGGER.isDebugEnabled()) {
-            BSCFSIO_LOGGER.debug("BSCFSIO: Preventing from moving item via quick mouse move. (container: {}, slot: {}, button: {}, click: {}, player: {}, ci: {}, gameMode: {}, config: {}, items: {}, clickedSlot: {}, stack: {})", container, slot, button, click, player, ci, this, config, items, clickedSlot, stack);
-        }
-
         // Cancel the moving.
         ci.cancel();
 
         // Process the sound effect, if enabled.
-        if (config.sound()) {
-            this.minecraft.getSoundManager().play(SimpleSoundInstance.forUI(SoundEvents.PIG_AMBIENT, 1.0F));
+        if (snapshot.sound()) {
+            BSound.play(this.minecraft, snapshot);
+        }
+
+        // Record, pop the profiler.
+        bscfsio_record(event, start, container, slot, button, click, menu, /*blocked=*/true);
+        profiler.pop();
+    }
+
+    /**
+     * Checks one stack affected by the click via {@link BDecision}.
+     *
+     * @param snapshot Current config snapshot
+     * @param type     Click type {@link ClickType#ordinal()}
+     * @param slot     Clicked slot ID
+     * @param slots    Number of the slots in the menu
+     * @param stack    Affected stack
+     * @return Whether the stack is protected
+     */
+    @Unique
+    private static boolean bscfsio_check(BSnapshot snapshot, int type, int slot, int slots, ItemStack stack) {
+        int item = (stack.isEmpty() ? -1 : BuiltInRegistries.ITEM.getId(stack.getItem()));
+        int verdict = BDecision.decide(snapshot, type, slot, slots, item);
+        return ((verdict == BDecision.BLOCK) || ((verdict == BDecision.INSPECT) && snapshot.rules().test(stack, item)));
+    }
+
+    /**
+     * Gets the inventory stack swapped by the {@link BPolicy#SWAP} policy.
+     *
+     * @param player Player clicked the slot
+     * @param button Button ID, the inventory slot index to swap with
+     * @return Swapped inventory stack, {@link ItemStack#EMPTY} if none
+     */
+    @Unique
+    private static ItemStack bscfsio_swapped(Player player, int button) {
+        Inventory inventory = player.getInventory();
+        return (((button >= 0) && (button < inventory.getContainerSize())) ? inventory.getItem(button) : ItemStack.EMPTY);
+    }
+
+    /**
+     * Checks the {@link BPolicy#GATHER} policy in a single pass over the protected-slot mask.
+     *
+     * @param snapshot  Current config snapshot
+     * @param container Container ID
+     * @param menu      Clicked menu
+     * @return Whether any stack to be gathered to the carried stack is protected
+     */
+    @Unique
+    private static boolean bscfsio_gather(BSnapshot snapshot, int container, AbstractContainerMenu menu) {
+        // Skip if nothing is carried.
+        ItemStack carried = menu.getCarried();
+        if (carried.isEmpty()) return false;
+
+        // Check all stacks that would be gathered at once.
+        NonNullList<Slot> items = menu.slots;
+        boolean blocked = false;
+        for (int i = 0, size = items.size(); i < size; i++) {
+            if (!BMask.isProtected(menu, i) || !ItemStack.isSameItemSameTags(items.get(i).getItem(), carried)) continue;
+            bscfsio_show(snapshot, container, i);
+            blocked = true;
         }
+        return blocked;
+    }
 
-        // Process the visual overlay, if enabled.
-        long visual = config.visual();
-        if (visual > 0L) {
-            ((BSlot) clickedSlot).bscfsio_renderOverlayUntil(System.nanoTime() + (visual * 1_000_000L));
+    /**
+     * Checks the {@link BPolicy#DRAG} policy. The gesture is decided once at its start.
+     *
+     * @param snapshot Current config snapshot
+     * @param type     Click type {@link ClickType#ordinal()}
+     * @param menu     Clicked menu
+     * @param slot     Clicked slot ID
+     * @param button   Button ID, used to get the drag phase
+     * @return Whether the carried stack was protected at the start of the gesture
+     */
+    @Unique
+    private boolean bscfsio_drag(BSnapshot snapshot, int type, AbstractContainerMenu menu, int slot, int button) {
+        // Decide the whole gesture at its start.
+        int header = AbstractContainerMenu.getQuickcraftHeader(button);
+        if (header == 0) {
+            this.bscfsio_dragBlocked = bscfsio_check(snapshot, type, slot, menu.slots.size(), menu.getCarried());
         }
+        boolean blocked = this.bscfsio_dragBlocked;
 
-        // Pop the profiler.
-        profiler.pop();
+        // Reset at the end of the gesture.
+        if (header == 2) {
+            this.bscfsio_dragBlocked = false;
+        }
+        return blocked;
+    }
+
+    /**
+     * Records the handled click to the {@link BJournal}, the {@link BRecorder}, and the {@link BStats}, and commits the click JFR event, if enabled.
+     *
+     * @param event     Event to commit
+     * @param start     Time when the click handling has started (in units of {@link System#nanoTime()})
+     * @param container Container ID
+     * @param slot      Clicked slot ID
+     * @param button    Button ID
+     * @param click     Click type
+     * @param menu      Clicked menu
+     * @param blocked   Whether the click has been blocked
+     */
+    @Unique
+    private static void bscfsio_record(BClickEvent event, long start, int container, int slot, int button, ClickType click, AbstractContainerMenu menu, boolean blocked) {
+        // Get the clicked item.
+        NonNullList<Slot> items = menu.slots;
+        ItemStack stack = (((slot >= 0) && (slot < items.size())) ? items.get(slot).getItem() : ItemStack.EMPTY);
+        int item = (stack.isEmpty() ? -1 : BuiltInRegistries.ITEM.getId(stack.getItem()));
+
+        // Record.
+        int verdict = (blocked ? BDecision.BLOCK : BDecision.PASS);
+        BJournal.click(container, slot, button, click.ordinal(), item, verdict);
+        BRecorder.click(container, slot, items.size(), button, click.ordinal(), item, verdict);
+        BStats.click(click.ordinal(), blocked, System.nanoTime() - start);
+
+        // Skip if disabled.
+        if (!event.shouldCommit()) return;
+
+        // Commit.
+        event.click = click.name();
+        event.slot = slot;
+        event.item = item;
+        event.blocked = blocked;
+        event.commit();
+    }
+
+    /**
+     * Shows the visual overlay, if enabled.
+     *
+     * @param snapshot  Current config snapshot
+     * @param container Container ID
+     * @param slot      Slot ID
+     */
+    @Unique
+    private static void bscfsio_show(BSnapshot snapshot, int container, int slot) {
+        // Skip if disabled. The overlays are never rendered if disabled at startup.
+        long visual = snapshot.visual();
+        if (!BMixinPlugin.OVERLAY || (visual <= 0L)) return;
+
+        // Show.
+        BOverlay.show(container, slot, System.nanoTime() + visual);
     }
 }
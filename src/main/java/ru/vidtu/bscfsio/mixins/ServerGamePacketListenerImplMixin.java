@@ -0,0 +1,97 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024-2025 VidTu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.vidtu.bscfsio.mixins;
+
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.server.network.ServerGamePacketListenerImpl;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.inventory.AbstractContainerMenu;
+import net.minecraft.world.inventory.ClickType;
+import org.jetbrains.annotations.Contract;
+import org.jspecify.annotations.NullMarked;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Redirect;
+import ru.vidtu.bscfsio.BServer;
+
+/**
+ * Mixin that rejects the protected clicks on the server. The client's predicted slots are still applied as
+ * the remote state, so the following {@code broadcastChanges()} resends only the slots that actually differ.
+ *
+ * @author VidTu
+ */
+// @ApiStatus.Internal // Can't annotate this without logging in the console.
+@Mixin(ServerGamePacketListenerImpl.class)
+@NullMarked
+public final class ServerGamePacketListenerImplMixin {
+    /**
+     * Logger for this class.
+     */
+    @Unique
+    private static final Logger BSCFSIO_LOGGER = LoggerFactory.getLogger("BSCFSIO/ServerGamePacketListenerImplMixin");
+
+    /**
+     * Player of this listener.
+     */
+    @Shadow
+    public ServerPlayer player;
+
+    /**
+     * An instance of this class cannot be created.
+     *
+     * @throws AssertionError Always
+     * @deprecated Always throws
+     */
+    @Deprecated(forRemoval = true)
+    @Contract(value = "-> fail", pure = true)
+    private ServerGamePacketListenerImplMixin() {
+        throw new AssertionError("No instances.");
+    }
+
+    /**
+     * Rejects the click if it moves any protected stack.
+     *
+     * @param menu   Clicked menu
+     * @param slot   Clicked slot index
+     * @param button Button ID
+     * @param click  Click type
+     * @param player Player clicked the slot
+     */
+    @Redirect(method = "handleContainerClick", at = @At(value = "INVOKE", target = "Lnet/minecraft/world/inventory/AbstractContainerMenu;clicked(IILnet/minecraft/world/inventory/ClickType;Lnet/minecraft/world/entity/player/Player;)V"))
+    private void bscfsio_handleContainerClick_clicked(AbstractContainerMenu menu, int slot, int button, ClickType click, Player player) {
+        // Click if not blocked.
+        if (!BServer.isBlocked(menu, slot, button, click, player)) {
+            menu.clicked(slot, button, click, player);
+            return;
+        }
+
+        // Log. (**DEBUG**)
+        BSCFSIO_LOGGER.debug("BSCFSIO: Rejected click. (player: {}, menu: {}, slot: {}, button: {}, click: {})", this.player, menu, slot, button, click);
+    }
+}
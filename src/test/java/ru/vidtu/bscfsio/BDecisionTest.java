@@ -0,0 +1,142 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024-2025 VidTu
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ru.vidtu.bscfsio;
+
+import com.sun.management.ThreadMXBean;
+import net.minecraft.SharedConstants;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.world.inventory.ClickType;
+import net.minecraft.world.item.Items;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tests that the steady-state {@link BDecision#decide(BSnapshot, int, int, int, int)} path never allocates.
+ *
+ * @author VidTu
+ */
+@NullMarked
+final class BDecisionTest {
+    /**
+     * Number of the warmup calls.
+     */
+    private static final int WARMUP = 200_000;
+
+    /**
+     * Number of the measured calls.
+     */
+    private static final int CALLS = 1_000_000;
+
+    /**
+     * Number of the generated inputs, must be a power of two.
+     */
+    private static final int INPUTS = 1024;
+
+    /**
+     * Bootstraps the game registries.
+     */
+    @BeforeAll
+    static void bootstrap() {
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+    }
+
+    /**
+     * Decides the random inputs and checks the thread allocation counter doesn't grow.
+     */
+    @Test
+    void decideDoesNotAllocate() {
+        // Skip if the allocation counter is not supported.
+        ThreadMXBean bean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(bean.isThreadAllocatedMemorySupported(), "Thread allocation counter is not supported.");
+        bean.setThreadAllocatedMemoryEnabled(true);
+
+        // Compile the snapshot.
+        List<ResourceLocation> keys = new ArrayList<>(BuiltInRegistries.ITEM.keySet());
+        keys.remove(BuiltInRegistries.ITEM.getKey(Items.AIR));
+        List<String> ids = new ArrayList<>(64);
+        for (int i = 0; i < 64; i++) {
+            ids.add(keys.get(i).toString());
+        }
+        BPolicy[] policies = new BPolicy[ClickType.values().length];
+        Arrays.fill(policies, BPolicy.SLOT);
+        BSnapshot snapshot = new BSnapshot(true, policies, false, 0L, 1, 0L, 0, false, false, BMatcher.compile(ids), BRules.EMPTY);
+
+        // Generate the inputs.
+        Random random = new Random(0L);
+        int types = ClickType.values().length;
+        int registry = BuiltInRegistries.ITEM.size();
+        int[] clicks = new int[INPUTS];
+        int[] items = new int[INPUTS];
+        for (int i = 0; i < INPUTS; i++) {
+            clicks[i] = random.nextInt(types);
+            items[i] = random.nextInt(registry);
+        }
+
+        // Warm up.
+        int blocked = decide(snapshot, clicks, items, WARMUP);
+
+        // Measure.
+        long before = bean.getCurrentThreadAllocatedBytes();
+        blocked += decide(snapshot, clicks, items, CALLS);
+        long after = bean.getCurrentThreadAllocatedBytes();
+        long overhead = bean.getCurrentThreadAllocatedBytes() - after;
+
+        // Check.
+        assertEquals(0L, (after - before) - overhead, "BDecision.decide() allocated in the steady state. (blocked: " + blocked + ')');
+    }
+
+    /**
+     * Decides the inputs in a loop.
+     *
+     * @param snapshot Config snapshot
+     * @param clicks   Click types {@link ClickType#ordinal()}
+     * @param items    Item raw IDs
+     * @param calls    Number of the calls
+     * @return Number of the blocked calls
+     */
+    private static int decide(BSnapshot snapshot, int[] clicks, int[] items, int calls) {
+        int blocked = 0;
+        for (int i = 0; i < calls; i++) {
+            int input = (i & (INPUTS - 1));
+            if (BDecision.decide(snapshot, clicks[input], input % 54, 54, items[input]) == BDecision.BLOCK) {
+                blocked++;
+            }
+        }
+        return blocked;
+    }
+}